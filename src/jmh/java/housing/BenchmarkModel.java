@@ -0,0 +1,93 @@
+package housing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**************************************************************************************************
+ * Class to set up the static state of the Model for the benchmarks, with a given target population,
+ * and to advance it step by step up to the point where the regional sale markets are about to be
+ * cleared. Since the data classes read the Model's configuration when first loaded, a Model can
+ * only be set up once per JVM, which is why every benchmark trial runs in its own fork. Data files
+ * are read from the addresses in the default config file, so benchmarks must be run from the
+ * project folder.
+ *
+ *************************************************************************************************/
+final class BenchmarkModel {
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private static final String DEFAULT_CONFIG_FILE = "src/main/resources/config.properties";
+
+    private static boolean      initialised = false;
+
+    //------------------------//
+    //----- Constructors -----//
+    //------------------------//
+
+    private BenchmarkModel() {}
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    /**
+     * Create and initialise the Model with the given target population and run it for a number of time steps, so that
+     * sale and rental markets contain a realistic book of offers
+     *
+     * @param targetPopulation Target number of households, replacing the TARGET_POPULATION of the default config file
+     * @param warmUpSteps Number of time steps to run before any measurement
+     */
+    static void setUp(int targetPopulation, int warmUpSteps) throws IOException {
+        if (initialised) throw new IllegalStateException("The Model can only be set up once per JVM");
+        Path outputFolder = Files.createTempDirectory("benchmark");
+        Path configFile = outputFolder.resolve("config.properties");
+        List<String> lines = new ArrayList<>();
+        for (String line: Files.readAllLines(Paths.get(DEFAULT_CONFIG_FILE), StandardCharsets.UTF_8)) {
+            if (line.trim().startsWith("TARGET_POPULATION")) line = "TARGET_POPULATION = " + targetPopulation;
+            lines.add(line);
+        }
+        Files.write(configFile, lines, StandardCharsets.UTF_8);
+        new Model(configFile.toString(), outputFolder.toString() + "/");
+        Model.setupStatics();
+        Model.init();
+        for (Model.t = 0; Model.t < warmUpSteps; Model.t++) Model.modelStep();
+        initialised = true;
+    }
+
+    /**
+     * Run the current time step up to the point where all regional sale markets are left with their bids and offers
+     * ready to be cleared, through the same phases as Model.modelStep and Region.step
+     */
+    static void stepUntilSaleClearing() {
+        Model.stepBeforeRegions();
+        for (Region r: Model.geography) r.stepUntilSaleClearing();
+    }
+
+    /**
+     * Finish a time step started with stepUntilSaleClearing, once the regional sale markets have been cleared, and
+     * move on to the next one
+     */
+    static void finishStep() {
+        for (Region r: Model.geography) r.stepAfterSaleClearing();
+        Model.stepAfterRegions();
+        Model.t++;
+    }
+
+    /**
+     * @return Region with the largest number of households
+     */
+    static Region largestRegion() {
+        Region largest = Model.geography.get(0);
+        for (Region r: Model.geography) {
+            if (r.households.size() > largest.households.size()) largest = r;
+        }
+        return largest;
+    }
+}
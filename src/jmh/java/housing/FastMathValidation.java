@@ -0,0 +1,243 @@
+package housing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.cli.*;
+
+/**************************************************************************************************
+ * Driver comparing the macro outputs of the Model in exact mode (fastMath = false) and in fast-math
+ * mode (fastMath = true). For each mode, it runs the Model headless in a fresh JVM, for a number of
+ * simulations from the same seed, and reads back the core indicator time series. For each indicator
+ * and simulation, the time series is averaged over the time steps after a burn-in period, and these
+ * averages are then summarised across simulations into a mean and a standard deviation per mode.
+ * Both modes take every random number, including all normal samples, from the same stream, so that
+ * their runs start from identical draws and only diverge as the rounding differences of exp and
+ * log (about 1e-13 in relative terms) tip some household decision, after which the draws are used
+ * differently. The Welch test thus compares near-paired runs, and the report,
+ * FastMathValidation.csv, written to the output folder, gives for each indicator the difference of
+ * means both relative to the exact mean and as a Welch t-statistic, with values of |t| well above 2
+ * flagging a systematic difference between modes. The last line of the report gives the wall time
+ * of each mode.
+ *
+ * The driver takes the following command line input arguments:
+ *
+ * -configFile <arg>    Base configuration file (default 'src/main/resources/config.properties')
+ * -outputFolder <arg>  Folder in which to collect all results (default 'results/fastMathValidation/<date>/')
+ * -runs <arg>          Number of simulations for each mode (default 10)
+ * -steps <arg>         Number of time steps of each simulation (default 1000)
+ * -burnIn <arg>        Number of initial time steps excluded from the averages (default 200)
+ * -population <arg>    Target population (default 10000)
+ * -jvmArgs <arg>       Space-separated arguments for each Model JVM, such as a maximum heap size
+ *
+ * As the ScalingBenchmark, the driver must be run from the project folder, e.g., with
+ * "java -cp target/benchmarks.jar housing.FastMathValidation".
+ *
+ *************************************************************************************************/
+public class FastMathValidation {
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private static String       configFileName;
+    private static String       outputFolder;
+    private static int          runs;
+    private static int          steps;
+    private static int          burnIn;
+    private static int          population;
+    private static String []    jvmArgs;
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        handleInputArguments(args);
+        new File(outputFolder).mkdirs();
+        System.out.println("Running exact mode");
+        double exactWallTime = runMode(false);
+        System.out.println("Running fast-math mode");
+        double fastWallTime = runMode(true);
+        Map<String, double [][]> exact = readCoreIndicators(outputFolder + "exact/output/");
+        Map<String, double [][]> fast = readCoreIndicators(outputFolder + "fast/output/");
+        try (PrintWriter report = new PrintWriter(outputFolder + "FastMathValidation.csv", "UTF-8")) {
+            report.println("Indicator, ExactMean, ExactStd, FastMean, FastStd, RelativeDifference, WelchT");
+            for (Map.Entry<String, double [][]> entry: exact.entrySet()) {
+                if (!fast.containsKey(entry.getKey())) continue;
+                double [] exactAverages = timeAverages(entry.getValue());
+                double [] fastAverages = timeAverages(fast.get(entry.getKey()));
+                double exactMean = mean(exactAverages);
+                double fastMean = mean(fastAverages);
+                double exactVariance = variance(exactAverages, exactMean);
+                double fastVariance = variance(fastAverages, fastMean);
+                double welchT = (fastMean - exactMean)
+                        /Math.sqrt(exactVariance/exactAverages.length + fastVariance/fastAverages.length);
+                report.println(entry.getKey() + ", " + exactMean + ", " + Math.sqrt(exactVariance) + ", " + fastMean
+                        + ", " + Math.sqrt(fastVariance) + ", " + (fastMean - exactMean)/Math.abs(exactMean) + ", "
+                        + welchT);
+            }
+            report.println("WallTime(s), " + exactWallTime + ", NaN, " + fastWallTime + ", NaN, "
+                    + (fastWallTime - exactWallTime)/exactWallTime + ", NaN");
+        }
+        System.out.println("Report written to " + outputFolder + "FastMathValidation.csv");
+    }
+
+    /**
+     * Run the Model in a new JVM for all simulations of a given mode
+     *
+     * @param fastMath True to run in fast-math mode, false to run in exact mode
+     * @return Wall time of the run in seconds
+     */
+    private static double runMode(boolean fastMath) throws IOException, InterruptedException {
+        String modeFolder = outputFolder + (fastMath ? "fast/" : "exact/");
+        new File(modeFolder).mkdirs();
+        // Write a config file overriding the parameters of this mode, and activating core indicator recording
+        String modeConfigFileName = modeFolder + "config.properties";
+        List<String> configLines = new ArrayList<>();
+        for (String line: Files.readAllLines(Paths.get(configFileName), StandardCharsets.UTF_8)) {
+            String key = line.split("=")[0].trim();
+            switch (key) {
+                case "TARGET_POPULATION": line = key + " = " + population; break;
+                case "N_STEPS": line = key + " = " + steps; break;
+                case "N_SIMS": line = key + " = " + runs; break;
+                case "recordCoreIndicators": line = key + " = true"; break;
+                case "fastMath": line = key + " = " + fastMath; break;
+                default: break;
+            }
+            configLines.add(line);
+        }
+        Files.write(Paths.get(modeConfigFileName), configLines, StandardCharsets.UTF_8);
+        // Run the Model in a new JVM, with the -dev option so that no question is asked about the output folder
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String arg: jvmArgs) command.add(arg);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("housing.Model");
+        command.add("-configFile");
+        command.add(modeConfigFileName);
+        command.add("-outputFolder");
+        command.add(modeFolder + "output/");
+        command.add("-dev");
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.redirectErrorStream(true);
+        processBuilder.redirectOutput(new File(modeFolder + "Model.log"));
+        long start = System.nanoTime();
+        int exitCode = processBuilder.start().waitFor();
+        double wallTime = (System.nanoTime() - start)/1e9;
+        if (exitCode != 0) {
+            System.out.println("Model run failed, see " + modeFolder + "Model.log");
+            System.exit(1);
+        }
+        return wallTime;
+    }
+
+    /**
+     * Read all core indicator files in a folder, each holding one line of comma-separated values per simulation
+     *
+     * @return Map from indicator name to an array of time series, one per simulation
+     */
+    private static Map<String, double [][]> readCoreIndicators(String folder) throws IOException {
+        Map<String, double [][]> indicators = new TreeMap<>();
+        File [] files = new File(folder).listFiles((dir, name) -> name.startsWith("coreIndicator-")
+                && name.endsWith(".csv"));
+        if (files == null) return indicators;
+        for (File file: files) {
+            List<double []> series = new ArrayList<>();
+            for (String line: Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                if (line.trim().isEmpty()) continue;
+                String [] values = line.split(",");
+                double [] parsed = new double[values.length];
+                for (int i = 0; i < values.length; i++) parsed[i] = Double.parseDouble(values[i].trim());
+                series.add(parsed);
+            }
+            String name = file.getName().substring("coreIndicator-".length(), file.getName().length() - 4);
+            indicators.put(name, series.toArray(new double[0][]));
+        }
+        return indicators;
+    }
+
+    /**
+     * @return Average of each time series over the time steps after the burn-in period, ignoring non-finite values
+     */
+    private static double [] timeAverages(double [][] series) {
+        double [] averages = new double[series.length];
+        for (int i = 0; i < series.length; i++) {
+            double sum = 0.0;
+            int n = 0;
+            for (int t = Math.min(burnIn, series[i].length - 1); t < series[i].length; t++) {
+                if (Double.isFinite(series[i][t])) {
+                    sum += series[i][t];
+                    n++;
+                }
+            }
+            averages[i] = n > 0 ? sum/n : Double.NaN;
+        }
+        return averages;
+    }
+
+    private static double mean(double [] values) {
+        double sum = 0.0;
+        for (double value: values) sum += value;
+        return sum/values.length;
+    }
+
+    /**
+     * @return Sample variance, with Bessel's correction
+     */
+    private static double variance(double [] values, double mean) {
+        if (values.length < 2) return Double.NaN;
+        double sum = 0.0;
+        for (double value: values) sum += (value - mean)*(value - mean);
+        return sum/(values.length - 1);
+    }
+
+    /**
+     * Handle command line input arguments, using the same defaults as the Model where they overlap
+     */
+    private static void handleInputArguments(String[] args) {
+        Options options = new Options();
+        options.addOption("configFile", true, "Base configuration file (address within project folder). By " +
+                "default, 'src/main/resources/config.properties' is used.");
+        options.addOption("outputFolder", true, "Folder in which to collect all results. By default, " +
+                "'results/fastMathValidation/<current date and time>/' is used.");
+        options.addOption("runs", true, "Number of simulations for each mode. By default, 10.");
+        options.addOption("steps", true, "Number of time steps of each simulation. By default, 1000.");
+        options.addOption("burnIn", true, "Number of initial time steps excluded from the averages. By default, 200.");
+        options.addOption("population", true, "Target population. By default, 10000.");
+        options.addOption("jvmArgs", true, "Space-separated arguments for each Model JVM, e.g., '-Xmx16g'.");
+        options.addOption("help", false, "Print input arguments usage information.");
+        HelpFormatter formatter = new HelpFormatter();
+        try {
+            CommandLine cmd = new DefaultParser().parse(options, args);
+            if (cmd.hasOption("help")) {
+                formatter.printHelp("FastMathValidation", options);
+                System.exit(0);
+            }
+            configFileName = cmd.getOptionValue("configFile", "src/main/resources/config.properties");
+            outputFolder = cmd.getOptionValue("outputFolder",
+                    "results/fastMathValidation/" + Instant.now().toString().replace(":", "-") + "/");
+            if (!outputFolder.endsWith("/")) outputFolder += "/";
+            runs = Integer.parseInt(cmd.getOptionValue("runs", "10").trim());
+            steps = Integer.parseInt(cmd.getOptionValue("steps", "1000").trim());
+            burnIn = Integer.parseInt(cmd.getOptionValue("burnIn", "200").trim());
+            population = Integer.parseInt(cmd.getOptionValue("population", "10000").trim());
+            String jvmArgsValue = cmd.getOptionValue("jvmArgs", "").trim();
+            jvmArgs = jvmArgsValue.isEmpty() ? new String[0] : jvmArgsValue.split("\\s+");
+        } catch (ParseException | NumberFormatException e) {
+            System.err.println("Parsing failed. Reason: " + e.getMessage());
+            formatter.printHelp("FastMathValidation", options);
+            System.exit(1);
+        }
+    }
+}
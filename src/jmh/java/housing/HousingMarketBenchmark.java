@@ -0,0 +1,108 @@
+package housing;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**************************************************************************************************
+ * Benchmarks for the house sale market hot paths: clearing of all regional sale markets, with the
+ * books of offers and bids produced by the model itself after a warm-up period, and the search for
+ * the best offer for owner-occupier (price-quality) and buy-to-let (price-yield) bids. The size of
+ * the books is controlled through the target population of the model.
+ *
+ *************************************************************************************************/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class HousingMarketBenchmark {
+
+    //----------------------//
+    //----- Subclasses -----//
+    //----------------------//
+
+    /**
+     * State for clearing all regional sale markets once per invocation, advancing the model a full time step between
+     * invocations so that each of them finds a fresh book of bids and offers
+     */
+    @State(Scope.Benchmark)
+    public static class ClearMarketState {
+        @Param({"10000", "50000"})
+        int targetPopulation;
+
+        @Param({"200"})
+        int warmUpSteps;
+
+        @Setup(Level.Trial)
+        public void setUpModel() throws IOException { BenchmarkModel.setUp(targetPopulation, warmUpSteps); }
+
+        @Setup(Level.Invocation)
+        public void stepUntilSaleClearing() { BenchmarkModel.stepUntilSaleClearing(); }
+
+        @TearDown(Level.Invocation)
+        public void finishStep() { BenchmarkModel.finishStep(); }
+    }
+
+    /**
+     * State for looking up the best offer for a set of synthetic bids, of the given type, on the sale market of the
+     * largest region, whose book of offers is left untouched once sorted
+     */
+    @State(Scope.Benchmark)
+    public static class BestOfferState {
+        @Param({"10000", "50000"})
+        int targetPopulation;
+
+        @Param({"200"})
+        int warmUpSteps;
+
+        @Param({"OO", "BTL"})
+        String bidType;
+
+        @Param({"1000"})
+        int nBids;
+
+        HouseSaleMarket                 market;
+        BidBook                         bids;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            BenchmarkModel.setUp(targetPopulation, warmUpSteps);
+            BenchmarkModel.stepUntilSaleClearing();
+            Region region = BenchmarkModel.largestRegion();
+            market = region.houseSaleMarket;
+            market.sortPriorities();
+            // Synthetic bids from random households of the region, with prices uniformly distributed between zero
+            // and the highest price on offer
+            double maxPrice = 0.0;
+            for (HousingMarketRecord offer: market.getOffersPQ()) maxPrice = Math.max(maxPrice, offer.getPrice());
+            Random random = new Random(1L);
+            bids = new BidBook(nBids);
+            for (int i = 0; i < nBids; i++) {
+                Household buyer = region.households.get(random.nextInt(region.households.size()));
+                bids.add(buyer, random.nextDouble()*maxPrice, bidType.equals("BTL"));
+            }
+        }
+    }
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    @Benchmark
+    public void clearMarket(ClearMarketState state) {
+        for (Region r: Model.geography) r.houseSaleMarket.clearMarket();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void getBestOffer(BestOfferState state, Blackhole blackhole) {
+        BidBook bids = state.bids;
+        for (int i = 0; i < bids.size(); i++) {
+            blackhole.consume(state.market.getBestOffer(bids.getPrice(i), bids.getBuyer(i), bids.isBTL(i)));
+        }
+    }
+}
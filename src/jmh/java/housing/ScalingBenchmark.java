@@ -0,0 +1,266 @@
+package housing;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.cli.*;
+
+/**************************************************************************************************
+ * Driver for end-to-end benchmarks of the whole model. For each point of a matrix of target
+ * populations, numbers of regions and numbers of time steps, it runs the Model headless in a fresh
+ * JVM, with performance recording activated, and summarises the resulting performance time series
+ * into a single line of a report, ScalingBenchmark.csv, written to the output folder. Each point
+ * needs its own JVM, since the data classes read the Model's configuration only once per JVM.
+ *
+ * The driver takes the following command line input arguments:
+ *
+ * -configFile <arg>    Base configuration file (default 'src/main/resources/config.properties')
+ * -outputFolder <arg>  Folder in which to collect all results (default 'results/benchmarks/<date>/')
+ * -populations <arg>   Comma-separated target populations (default 10000,100000,1000000)
+ * -regions <arg>       Comma-separated numbers of regions of equal real population (default 1)
+ * -steps <arg>         Comma-separated numbers of time steps (default 200)
+ * -jvmArgs <arg>       Space-separated arguments for each Model JVM, such as a maximum heap size
+ *
+ * Since the default config file uses relative addresses for its data files, the driver must be
+ * run from the project folder, e.g., with "java -cp target/benchmarks.jar housing.ScalingBenchmark".
+ *
+ *************************************************************************************************/
+public class ScalingBenchmark {
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private static final String REAL_POPULATION_PER_REGION = "25000"; // Real population assigned to each region
+
+    private static String       configFileName;
+    private static String       outputFolder;
+    private static int []       populations;
+    private static int []       regions;
+    private static int []       steps;
+    private static String []    jvmArgs;
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        handleInputArguments(args);
+        new File(outputFolder).mkdirs();
+        try (PrintWriter report = new PrintWriter(outputFolder + "ScalingBenchmark.csv", "UTF-8")) {
+            report.println("TargetPopulation, nRegions, N_STEPS, ExitCode, WallTime(s), StepsPerSecond, FinalPopulation,"
+                    + " " + summaryHeader());
+            for (int population: populations) {
+                for (int nRegions: regions) {
+                    for (int nSteps: steps) {
+                        System.out.println("Running TARGET_POPULATION = " + population + ", regions = " + nRegions
+                                + ", N_STEPS = " + nSteps);
+                        report.println(runPoint(population, nRegions, nSteps));
+                        report.flush();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the Model in a new JVM for a single point of the matrix and summarise its performance results
+     *
+     * @return Line of the report for this point
+     */
+    private static String runPoint(int population, int nRegions, int nSteps) throws IOException,
+            InterruptedException {
+        String pointFolder = outputFolder + "pop" + population + "-regions" + nRegions + "-steps" + nSteps + "/";
+        new File(pointFolder).mkdirs();
+        // Write a real population per region file with the requested number of regions of equal size
+        String regionsFileName = pointFolder + "RealPopulationPerRegion.csv";
+        List<String> regionLines = new ArrayList<>();
+        regionLines.add("# Region, population");
+        for (int i = 1; i <= nRegions; i++) regionLines.add("Region" + i + ", " + REAL_POPULATION_PER_REGION);
+        Files.write(Paths.get(regionsFileName), regionLines, StandardCharsets.UTF_8);
+        // Write a config file overriding the parameters of this point, and activating performance recording
+        String pointConfigFileName = pointFolder + "config.properties";
+        List<String> configLines = new ArrayList<>();
+        for (String line: Files.readAllLines(Paths.get(configFileName), StandardCharsets.UTF_8)) {
+            String key = line.split("=")[0].trim();
+            switch (key) {
+                case "TARGET_POPULATION": line = key + " = " + population; break;
+                case "N_STEPS": line = key + " = " + nSteps; break;
+                case "N_SIMS": line = key + " = 1"; break;
+                case "recordPerformance": line = key + " = true"; break;
+                case "DATA_REAL_POPULATION_PER_REGION": line = key + " = \"" + regionsFileName + "\""; break;
+                default: break;
+            }
+            configLines.add(line);
+        }
+        Files.write(Paths.get(pointConfigFileName), configLines, StandardCharsets.UTF_8);
+        // Run the Model in a new JVM, with the -dev option so that no question is asked about the output folder
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String arg: jvmArgs) command.add(arg);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("housing.Model");
+        command.add("-configFile");
+        command.add(pointConfigFileName);
+        command.add("-outputFolder");
+        command.add(pointFolder + "output/");
+        command.add("-dev");
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.redirectErrorStream(true);
+        processBuilder.redirectOutput(new File(pointFolder + "Model.log"));
+        long start = System.nanoTime();
+        int exitCode = processBuilder.start().waitFor();
+        double wallTime = (System.nanoTime() - start)/1e9;
+        // Summarise performance time series
+        StringBuilder line = new StringBuilder();
+        line.append(population).append(", ").append(nRegions).append(", ").append(nSteps).append(", ").append(exitCode)
+                .append(", ").append(wallTime).append(", ");
+        File performanceFile = new File(pointFolder + "output/Performance-run1.csv");
+        if (exitCode != 0 || !performanceFile.exists()) {
+            System.out.println("Model run failed, see " + pointFolder + "Model.log");
+            line.append("NaN, NaN");
+            for (int i = 0; i < PerformanceRecorderColumn.values().length; i++) line.append(", NaN");
+            return line.toString();
+        }
+        return line.append(summarise(performanceFile)).toString();
+    }
+
+    /**
+     * @return Header of the columns written by summarise
+     */
+    private static String summaryHeader() {
+        StringBuilder header = new StringBuilder();
+        for (PerformanceRecorderColumn column: PerformanceRecorderColumn.values()) {
+            if (header.length() > 0) header.append(", ");
+            header.append(column.reportName);
+        }
+        return header.toString();
+    }
+
+    /**
+     * Read a performance time series and summarise it into steps per second, final population and, for each recorded
+     * column, its total or maximum over all time steps
+     */
+    private static String summarise(File performanceFile) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(performanceFile))) {
+            String [] header = reader.readLine().split(",");
+            for (int i = 0; i < header.length; i++) header[i] = header[i].trim();
+            double [] totals = new double[header.length];
+            double [] maxima = new double[header.length];
+            double [] last = new double[header.length];
+            String row;
+            while ((row = reader.readLine()) != null) {
+                String [] values = row.split(",");
+                for (int i = 0; i < values.length; i++) {
+                    last[i] = Double.parseDouble(values[i].trim());
+                    totals[i] += last[i];
+                    maxima[i] = Math.max(maxima[i], last[i]);
+                }
+            }
+            int stepColumn = indexOf(header, "Step(ms)");
+            int nRecordedSteps = (int)last[indexOf(header, "Model time")] + 1;
+            StringBuilder line = new StringBuilder();
+            line.append(nRecordedSteps/(totals[stepColumn]/1000.0)).append(", ")
+                    .append((long)last[indexOf(header, "TotalPopulation")]);
+            for (PerformanceRecorderColumn column: PerformanceRecorderColumn.values()) {
+                int i = indexOf(header, column.recorderName);
+                line.append(", ").append(column.useMaximum ? maxima[i] : totals[i]);
+            }
+            return line.toString();
+        }
+    }
+
+    private static int indexOf(String [] header, String name) {
+        for (int i = 0; i < header.length; i++) if (header[i].equals(name)) return i;
+        throw new IllegalArgumentException("Column " + name + " not found in performance file");
+    }
+
+    /**
+     * Columns of the PerformanceRecorder time series included in the report, either as totals or as maxima over time
+     */
+    private enum PerformanceRecorderColumn {
+        STEP("Step(ms)", "TotalStepTime(ms)", false),
+        DEMOGRAPHICS("DEMOGRAPHICS(ms)", "DEMOGRAPHICS(ms)", false),
+        CONSTRUCTION("CONSTRUCTION(ms)", "CONSTRUCTION(ms)", false),
+        HOUSEHOLDS("HOUSEHOLDS(ms)", "HOUSEHOLDS(ms)", false),
+        SALE_CLEARING("SALE_CLEARING(ms)", "SALE_CLEARING(ms)", false),
+        RENTAL_CLEARING("RENTAL_CLEARING(ms)", "RENTAL_CLEARING(ms)", false),
+        REGIONAL_STATS("REGIONAL_STATS(ms)", "REGIONAL_STATS(ms)", false),
+        COLLECTORS("COLLECTORS(ms)", "COLLECTORS(ms)", false),
+        BANK("BANK(ms)", "BANK(ms)", false),
+        RECORDER("RECORDER(ms)", "RECORDER(ms)", false),
+        CLEARING_ROUNDS("nClearingRounds", "nClearingRounds", false),
+        BIDS_MATCHED("nBidsMatched", "nBidsMatched", false),
+        OFFERS_CLEARED("nOffersCleared", "nOffersCleared", false),
+        MAX_CLEARING_ROUNDS("nClearingRounds", "MaxClearingRoundsPerStep", true),
+        ALLOCATED("AllocatedBytes", "AllocatedBytes", false),
+        GCS("nGCs", "nGCs", false),
+        GC_TIME("GC(ms)", "GC(ms)", false),
+        PEAK_HEAP("PeakHeapUsed", "PeakHeapUsed", true);
+
+        final String    recorderName; // Name of the column at the PerformanceRecorder time series
+        final String    reportName; // Name of the column at the report
+        final boolean   useMaximum; // True to report the maximum over time steps, false to report the total
+
+        PerformanceRecorderColumn(String recorderName, String reportName, boolean useMaximum) {
+            this.recorderName = recorderName;
+            this.reportName = reportName;
+            this.useMaximum = useMaximum;
+        }
+    }
+
+    /**
+     * Handle command line input arguments, using the same defaults as the Model where they overlap
+     */
+    private static void handleInputArguments(String[] args) {
+        Options options = new Options();
+        options.addOption("configFile", true, "Base configuration file (address within project folder). By " +
+                "default, 'src/main/resources/config.properties' is used.");
+        options.addOption("outputFolder", true, "Folder in which to collect all results. By default, " +
+                "'results/benchmarks/<current date and time>/' is used.");
+        options.addOption("populations", true, "Comma-separated target populations. By default, " +
+                "10000,100000,1000000.");
+        options.addOption("regions", true, "Comma-separated numbers of regions. By default, 1.");
+        options.addOption("steps", true, "Comma-separated numbers of time steps. By default, 200.");
+        options.addOption("jvmArgs", true, "Space-separated arguments for each Model JVM, e.g., '-Xmx16g'.");
+        options.addOption("help", false, "Print input arguments usage information.");
+        HelpFormatter formatter = new HelpFormatter();
+        try {
+            CommandLine cmd = new DefaultParser().parse(options, args);
+            if (cmd.hasOption("help")) {
+                formatter.printHelp("ScalingBenchmark", options);
+                System.exit(0);
+            }
+            configFileName = cmd.getOptionValue("configFile", "src/main/resources/config.properties");
+            outputFolder = cmd.getOptionValue("outputFolder",
+                    "results/benchmarks/" + Instant.now().toString().replace(":", "-") + "/");
+            if (!outputFolder.endsWith("/")) outputFolder += "/";
+            populations = parseIntegers(cmd.getOptionValue("populations", "10000,100000,1000000"));
+            regions = parseIntegers(cmd.getOptionValue("regions", "1"));
+            steps = parseIntegers(cmd.getOptionValue("steps", "200"));
+            String jvmArgsValue = cmd.getOptionValue("jvmArgs", "").trim();
+            jvmArgs = jvmArgsValue.isEmpty() ? new String[0] : jvmArgsValue.split("\\s+");
+        } catch (ParseException | NumberFormatException e) {
+            System.err.println("Parsing failed. Reason: " + e.getMessage());
+            formatter.printHelp("ScalingBenchmark", options);
+            System.exit(1);
+        }
+    }
+
+    private static int [] parseIntegers(String values) {
+        String [] split = values.split(",");
+        int [] integers = new int[split.length];
+        for (int i = 0; i < split.length; i++) integers[i] = Integer.parseInt(split[i].trim());
+        return integers;
+    }
+}
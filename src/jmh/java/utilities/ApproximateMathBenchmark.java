@@ -0,0 +1,78 @@
+package utilities;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**************************************************************************************************
+ * Benchmarks for the table-based approximations of ApproximateMath against the corresponding Math
+ * functions, each evaluated over a block of arguments in the ranges met by household behaviour:
+ * exponents of a few units for exp and sigma, and incomes for log. Math.pow is not approximated,
+ * since exp(y*log(x)) measured no faster than Math.pow for the logistic probabilities raised to
+ * 1/12 of the monthly buy-to-let decisions.
+ *
+ *************************************************************************************************/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApproximateMathBenchmark {
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private static final int    N_ARGUMENTS = 10000;
+
+    private double []           expArguments;
+    private double []           logArguments;
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(1L);
+        expArguments = new double[N_ARGUMENTS];
+        logArguments = new double[N_ARGUMENTS];
+        for (int i = 0; i < N_ARGUMENTS; i++) {
+            expArguments[i] = 10.0*random.nextDouble() - 5.0;
+            logArguments[i] = 1.0e4 + 1.0e6*random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public void mathExp(Blackhole blackhole) {
+        for (double x: expArguments) blackhole.consume(Math.exp(x));
+    }
+
+    @Benchmark
+    public void approximateExp(Blackhole blackhole) {
+        for (double x: expArguments) blackhole.consume(ApproximateMath.exp(x));
+    }
+
+    @Benchmark
+    public void mathLog(Blackhole blackhole) {
+        for (double x: logArguments) blackhole.consume(Math.log(x));
+    }
+
+    @Benchmark
+    public void approximateLog(Blackhole blackhole) {
+        for (double x: logArguments) blackhole.consume(ApproximateMath.log(x));
+    }
+
+    @Benchmark
+    public void mathSigma(Blackhole blackhole) {
+        for (double x: expArguments) blackhole.consume(1.0/(1.0 + Math.exp(-x)));
+    }
+
+    @Benchmark
+    public void approximateSigma(Blackhole blackhole) {
+        for (double x: expArguments) blackhole.consume(ApproximateMath.sigma(x));
+    }
+}
@@ -0,0 +1,57 @@
+package utilities;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**************************************************************************************************
+ * Benchmarks for sampling from a Pdf through its inverse cumulative probability, for a number of
+ * samples of the pre-computed inverse CDF. Probabilities are drawn beforehand, so that only the
+ * interpolation is measured.
+ *
+ *************************************************************************************************/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PdfBenchmark {
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private static final int    N_PROBABILITIES = 10000;
+
+    @Param({"100", "800", "10000"})
+    int nSamples;
+
+    private Pdf                 pdf;
+    private double []           probabilities;
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Skewed, age-like density over [15, 105)
+        pdf = new Pdf(15.0, 105.0, new DoubleUnaryOperator() {
+            public double applyAsDouble(double age) {
+                double x = (age - 15.0)/90.0;
+                return x*Math.pow(1.0 - x, 3.0);
+            }
+        }, nSamples);
+        MersenneTwister rand = new MersenneTwister(1);
+        probabilities = new double[N_PROBABILITIES];
+        for (int i = 0; i < N_PROBABILITIES; i++) probabilities[i] = rand.nextDouble();
+    }
+
+    @Benchmark
+    public void inverseCumulativeProbability(Blackhole blackhole) {
+        for (double p: probabilities) blackhole.consume(pdf.inverseCumulativeProbability(p));
+    }
+}
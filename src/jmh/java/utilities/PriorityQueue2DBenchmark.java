@@ -0,0 +1,143 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**************************************************************************************************
+ * Benchmarks for the PriorityQueue2D operations used by the housing markets, on synthetic
+ * price-quality elements mimicking a book of offers of a given size: filling the queue, sorting its
+ * priorities, peeking the best element for a set of price boundaries and removing all elements in
+ * random order.
+ *
+ *************************************************************************************************/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriorityQueue2DBenchmark {
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    private ArrayList<Element>          elements; // Elements to add to the queue, in random order
+    private ArrayList<Element>          boundaries; // Price boundaries to peek with
+    private PriorityQueue2D<Element>    queue;
+
+    //----------------------//
+    //----- Subclasses -----//
+    //----------------------//
+
+    /**
+     * Synthetic element with a price (X dimension), a quality (Y dimension) and a unique id
+     */
+    static class Element {
+        final double    price;
+        final int       quality;
+        final int       id;
+
+        Element(double price, int quality, int id) {
+            this.price = price;
+            this.quality = quality;
+            this.id = id;
+        }
+    }
+
+    /**
+     * Price-quality comparator, equivalent to the one used for the offers at the housing markets
+     */
+    static class PQComparator implements PriorityQueue2D.XYComparator<Element> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int XYCompare(Element arg0, Element arg1) {
+            double diff = arg0.price - arg1.price;
+            if (diff == 0.0) {
+                diff = arg1.quality - arg0.quality;
+                if (diff == 0.0) diff = arg0.id - arg1.id;
+            }
+            return (int) Math.signum(diff);
+        }
+
+        @Override
+        public int YCompare(Element arg0, Element arg1) { return Integer.signum(arg0.quality - arg1.quality); }
+    }
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    @Setup(Level.Trial)
+    public void createElements() {
+        Random random = new Random(1L);
+        elements = new ArrayList<>(size);
+        boundaries = new ArrayList<>(size);
+        // Prices loosely increase with quality, as in the model, with 100 quality bands
+        for (int i = 0; i < size; i++) {
+            int quality = random.nextInt(100);
+            elements.add(new Element(100000.0*(1.0 + quality/50.0)*Math.exp(0.3*random.nextGaussian()), quality,
+                    i));
+            // Boundaries use the highest quality and id, so that they are X-greater than any element with their price
+            boundaries.add(new Element(400000.0*random.nextDouble(), Integer.MAX_VALUE, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Fill the queue, sorting its priorities only if required by the benchmark
+     */
+    private void fillQueue(boolean sort) {
+        queue = new PriorityQueue2D<>(new PQComparator());
+        for (Element e: elements) queue.add(e);
+        if (sort) queue.sortPriorities();
+    }
+
+    /**
+     * Before each invocation, leave the queue as required by the benchmark: empty for add, filled but unsorted for
+     * sortPriorities, and filled and sorted for remove. Since peek does not modify the queue, it is only filled once
+     */
+    @Setup(Level.Invocation)
+    public void setUpQueue(BenchmarkParams params) {
+        String benchmark = params.getBenchmark();
+        if (benchmark.endsWith(".peek") && queue != null) return;
+        if (benchmark.endsWith(".add")) {
+            queue = new PriorityQueue2D<>(new PQComparator());
+        } else {
+            fillQueue(!benchmark.endsWith(".sortPriorities"));
+        }
+        if (benchmark.endsWith(".remove")) Collections.shuffle(elements, new Random(size));
+    }
+
+    @Benchmark
+    public PriorityQueue2D<Element> add() {
+        for (Element e: elements) queue.add(e);
+        return queue;
+    }
+
+    @Benchmark
+    public PriorityQueue2D<Element> sortPriorities() {
+        queue.sortPriorities();
+        return queue;
+    }
+
+    @Benchmark
+    public void peek(Blackhole blackhole) {
+        for (Element boundary: boundaries) blackhole.consume(queue.peek(boundary));
+    }
+
+    @Benchmark
+    public PriorityQueue2D<Element> remove() {
+        for (Element e: elements) queue.remove(e);
+        return queue;
+    }
+}
@@ -0,0 +1,67 @@
+package utilities.sampler;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**************************************************************************************************
+ * Benchmarks for drawing a block of normal and exponential samples with the ziggurat samplers,
+ * against MersenneTwister.nextGaussian and inversion of a uniform draw, all with the same
+ * MersenneTwister generator as the model.
+ *
+ *************************************************************************************************/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ZigguratSamplerBenchmark {
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private static final int    N_SAMPLES = 10000;
+
+    private MersenneTwister     rand;
+    private double []           samples;
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rand = new MersenneTwister(1);
+        samples = new double[N_SAMPLES];
+    }
+
+    @Benchmark
+    public void polarGaussian(Blackhole blackhole) {
+        for (int i = 0; i < N_SAMPLES; i++) blackhole.consume(rand.nextGaussian());
+    }
+
+    @Benchmark
+    public void zigguratGaussian(Blackhole blackhole) {
+        for (int i = 0; i < N_SAMPLES; i++) blackhole.consume(ZigguratSampler.nextGaussian(rand));
+    }
+
+    @Benchmark
+    public double [] zigguratFillGaussian() {
+        ZigguratSampler.fillGaussian(rand, samples);
+        return samples;
+    }
+
+    @Benchmark
+    public void inversionExponential(Blackhole blackhole) {
+        for (int i = 0; i < N_SAMPLES; i++) blackhole.consume(-Math.log(1.0 - rand.nextDouble()));
+    }
+
+    @Benchmark
+    public void zigguratExponential(Blackhole blackhole) {
+        for (int i = 0; i < N_SAMPLES; i++) blackhole.consume(ZigguratSampler.nextExponential(rand));
+    }
+}
@@ -31,9 +31,9 @@ public class CreditSupply extends CollectorBase {
         totalBTLCredit = 0.0;
         for(MortgageAgreement m : Model.bank.mortgages) {
         	if(m.isBuyToLet) {
-            	totalBTLCredit += m.principal;
+            	totalBTLCredit += m.getPrincipal();
         	} else {
-        		totalOOCredit += m.principal;
+        		totalOOCredit += m.getPrincipal();
         	}
         }
         if (oldTotalCredit > 0.0) {
@@ -57,21 +57,21 @@ public class CreditSupply extends CollectorBase {
 	public void recordLoan(Household h, MortgageAgreement approval, House house) {
 		double housePrice;
 		if(config.isMortgageDiagnosticsActive()) {
-			housePrice = approval.principal + approval.downPayment;
+			housePrice = approval.getPrincipal() + approval.downPayment;
 			// TODO: Check with Arzu, Marc if monthly gross income used here should include total income or just employment income (as of now)
 			affordability = config.derivedParams.getAffordabilityDecay()*affordability +
                     (1.0-config.derivedParams.getAffordabilityDecay())*approval.monthlyPayment/
                             (h.getMonthlyGrossEmploymentIncome());
 			// TODO: This condition is redundant, as the method is only called when approval.principal > 0
-			if(approval.principal > 0.0) {
+			if(approval.getPrincipal() > 0.0) {
 				if(approval.isBuyToLet) {
-					btl_ltv.addValue(100.0*approval.principal/housePrice);
+					btl_ltv.addValue(100.0*approval.getPrincipal()/housePrice);
 					double icr = house.region.regionalRentalMarketStats.getExpAvFlowYield()*approval.purchasePrice/
-                            (approval.principal*Model.centralBank.getInterestCoverRatioStressedRate(false));
+                            (approval.getPrincipal()*Model.centralBank.getInterestCoverRatioStressedRate(false));
 					btl_icr.addValue(icr);
 				} else {
-					oo_ltv.addValue(100.0*approval.principal/housePrice);
-					oo_lti.addValue(approval.principal/h.getAnnualGrossEmploymentIncome());
+					oo_ltv.addValue(100.0*approval.getPrincipal()/housePrice);
+					oo_lti.addValue(approval.getPrincipal()/h.getAnnualGrossEmploymentIncome());
 				}
 				downpayments.addValue(approval.downPayment);
 			}
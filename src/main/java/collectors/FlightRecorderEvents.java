@@ -0,0 +1,113 @@
+package collectors;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**************************************************************************************************
+ * Java Flight Recorder events emitted from the hot paths of the simulation, so that production runs
+ * can be profiled, and garbage collection pauses correlated with specific market phases, by simply
+ * starting a flight recording (e.g., with -XX:StartFlightRecording). Unless a recording with these
+ * events enabled is running, events are neither timed nor committed, and the JIT compiler removes
+ * their allocation, so that they carry near-zero overhead.
+ *
+ * The Flight Recorder API is only present from JDK 11 and from JDK 8u262 onwards. Events must
+ * therefore only be created after checking AVAILABLE, so that their classes are never loaded on an
+ * older JVM.
+ *
+ *************************************************************************************************/
+public final class FlightRecorderEvents {
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    public static final boolean AVAILABLE = isFlightRecorderApiPresent(); // True if events can be created
+
+    //------------------------//
+    //----- Constructors -----//
+    //------------------------//
+
+    private FlightRecorderEvents() {}
+
+    //----------------------//
+    //----- Subclasses -----//
+    //----------------------//
+
+    @Name("housing.RegionStep")
+    @Label("Region Step")
+    @Category({"Housing Model", "Simulation"})
+    @Description("Step of a region, including its households and the clearing of its sale and rental markets")
+    public static class RegionStep extends Event {
+        @Label("Region")
+        public int      region;
+        @Label("Households")
+        public int      households;
+        @Label("Sale Bids")
+        public int      saleBids;
+        @Label("Sale Offers")
+        public int      saleOffers;
+        @Label("Rental Bids")
+        public int      rentalBids;
+        @Label("Rental Offers")
+        public int      rentalOffers;
+    }
+
+    @Name("housing.ClearingRound")
+    @Label("Market Clearing Round")
+    @Category({"Housing Model", "Market Clearing"})
+    @Description("Round of bid matching and match clearing at a regional sale or rental market")
+    public static class ClearingRound extends Event {
+        @Label("Region")
+        public int      region;
+        @Label("Market")
+        public String   market;
+        @Label("Round")
+        public int      round;
+        @Label("Bids Matched")
+        public int      bidsMatched;
+        @Label("Offers Cleared")
+        public int      offersCleared;
+        @Label("Oversubscribed Offers")
+        @Description("Offers matched with more than one bid")
+        public int      oversubscribedOffers;
+        @Label("Bids Returned")
+        @Description("Bids returned to the market to be matched again in the next round")
+        public int      bidsReturned;
+    }
+
+    @Name("housing.DemographicsStep")
+    @Label("Demographics Step")
+    @Category({"Housing Model", "Simulation"})
+    @Description("Births and deaths of households over all regions")
+    public static class DemographicsStep extends Event {
+        @Label("Births")
+        public int      births;
+        @Label("Deaths")
+        public int      deaths;
+    }
+
+    @Name("housing.RecorderWrite")
+    @Label("Recorder Write")
+    @Category({"Housing Model", "Output"})
+    @Description("Writing of the results of a time step to the output files")
+    public static class RecorderWrite extends Event {
+        @Label("Time Step")
+        public int      time;
+    }
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    private static boolean isFlightRecorderApiPresent() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
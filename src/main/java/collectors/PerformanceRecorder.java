@@ -0,0 +1,201 @@
+package collectors;
+
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+import housing.Model;
+
+/**************************************************************************************************
+ * Class to record, for each time step, the wall time spent in each phase of the simulation, a few
+ * market clearing counters, the amount of memory allocated, the heap usage and the garbage
+ * collection activity, and to write them to a file as a time series. When not active, all its
+ * methods return immediately without taking any time measurement, so that timing calls can be
+ * left in the hot paths of the model.
+ *
+ *************************************************************************************************/
+public class PerformanceRecorder extends CollectorBase {
+    private static final long serialVersionUID = 3318540255386937617L;
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private String                          outputFolder;
+    private transient PrintWriter           outfile;
+    private transient com.sun.management.ThreadMXBean threadMXBean; // Null if allocation cannot be measured
+    private transient MemoryMXBean          memoryMXBean;
+    private transient List<GarbageCollectorMXBean> gcMXBeans;
+
+    // Counters for the current time step
+    private long []                         phaseNanos; // Wall time spent in each phase
+    private int                             nClearingRounds; // Number of clearing rounds over all markets
+    private int                             nBidsMatched; // Number of bids matched with an offer over all rounds
+    private int                             nOffersCleared; // Number of offers cleared (transactions) over all rounds
+    private long                            stepStartNanos;
+    private long                            stepStartAllocatedBytes;
+    private long                            stepStartGCCount;
+    private long                            stepStartGCMillis;
+
+    // Maximum heap usage sampled at the end of each time step of the current run
+    private long                            peakHeapUsed;
+
+    //----------------------//
+    //----- Subclasses -----//
+    //----------------------//
+
+    /**
+     * Phases of the simulation step whose wall time is recorded. Regional phases are added up over all regions
+     */
+    public enum Phase {
+        DEMOGRAPHICS,       // Births and deaths
+        CONSTRUCTION,       // New builds and repricing of unsold new builds
+        HOUSEHOLDS,         // Household steps, including their bids and offers
+        SALE_CLEARING,      // Clearing of the regional house sale markets
+        RENTAL_CLEARING,    // Clearing of the regional rental markets
+        REGIONAL_STATS,     // Pre- and post-clearing regional statistics
+        COLLECTORS,         // Aggregation of regional statistics and credit supply statistics
+        BANK,               // Bank and central bank steps
+        RECORDER            // Output writing
+    }
+
+    //------------------------//
+    //----- Constructors -----//
+    //------------------------//
+
+    public PerformanceRecorder(String outputFolder) {
+        this.outputFolder = outputFolder;
+        phaseNanos = new long[Phase.values().length];
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean)bean).isThreadAllocatedMemorySupported()) {
+            threadMXBean = (com.sun.management.ThreadMXBean)bean;
+            threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        memoryMXBean = ManagementFactory.getMemoryMXBean();
+        gcMXBeans = ManagementFactory.getGarbageCollectorMXBeans();
+    }
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    public void openSingleRunFile(int nRun) {
+        if (!active) return;
+        try {
+            outfile = new PrintWriter(outputFolder + "Performance-run" + nRun + ".csv", "UTF-8");
+            StringBuilder header = new StringBuilder("Model time, TotalPopulation, Step(ms)");
+            for (Phase phase: Phase.values()) header.append(", ").append(phase).append("(ms)");
+            header.append(", nClearingRounds, nBidsMatched, nOffersCleared, AllocatedBytes, nGCs, GC(ms), HeapUsed,"
+                    + " PeakHeapUsed");
+            outfile.println(header);
+        } catch (FileNotFoundException | UnsupportedEncodingException e) {
+            e.printStackTrace();
+        }
+        peakHeapUsed = 0L;
+        resetCounters();
+    }
+
+    /**
+     * @return Start time of a phase, to be passed to endPhase, or zero if not active
+     */
+    public long startPhase() {
+        if (!active) return 0L;
+        return System.nanoTime();
+    }
+
+    /**
+     * Add the time elapsed since start to the given phase
+     *
+     * @param phase Phase that has just finished
+     * @param start Start time of the phase, as returned by startPhase
+     * @return End time of this phase, so that it can be used as start time of the next one, or zero if not active
+     */
+    public long endPhase(Phase phase, long start) {
+        if (!active) return 0L;
+        long end = System.nanoTime();
+        phaseNanos[phase.ordinal()] += end - start;
+        return end;
+    }
+
+    /**
+     * Record the results of a market clearing round
+     *
+     * @param bidsMatched Number of bids matched with an offer during the round
+     * @param offersCleared Number of offers cleared (transactions completed) during the round
+     */
+    public void recordClearingRound(int bidsMatched, int offersCleared) {
+        if (!active) return;
+        nClearingRounds++;
+        nBidsMatched += bidsMatched;
+        nOffersCleared += offersCleared;
+    }
+
+    /**
+     * Write the results recorded for this time step and reset all counters for the next one
+     *
+     * @param time Current time step
+     */
+    public void writeTimeStampResults(int time) {
+        if (!active) return;
+        long heapUsed = memoryMXBean.getHeapMemoryUsage().getUsed();
+        peakHeapUsed = Math.max(peakHeapUsed, heapUsed);
+        StringBuilder line = new StringBuilder();
+        line.append(time).append(", ").append(Model.demographics.getTotalPopulation()).append(", ")
+                .append((System.nanoTime() - stepStartNanos)/1e6);
+        for (long nanos: phaseNanos) line.append(", ").append(nanos/1e6);
+        line.append(", ").append(nClearingRounds).append(", ").append(nBidsMatched).append(", ")
+                .append(nOffersCleared).append(", ").append(getAllocatedBytes() - stepStartAllocatedBytes);
+        line.append(", ").append(getGCCount() - stepStartGCCount).append(", ").append(getGCMillis() - stepStartGCMillis)
+                .append(", ").append(heapUsed).append(", ").append(peakHeapUsed);
+        outfile.println(line);
+        resetCounters();
+    }
+
+    public void finishRun() {
+        if (!active) return;
+        outfile.close();
+    }
+
+    private void resetCounters() {
+        for (int i = 0; i < phaseNanos.length; i++) phaseNanos[i] = 0L;
+        nClearingRounds = 0;
+        nBidsMatched = 0;
+        nOffersCleared = 0;
+        stepStartNanos = System.nanoTime();
+        stepStartAllocatedBytes = getAllocatedBytes();
+        stepStartGCCount = getGCCount();
+        stepStartGCMillis = getGCMillis();
+    }
+
+    /**
+     * @return Total bytes allocated so far by the simulation thread, or zero if this cannot be measured
+     */
+    private long getAllocatedBytes() {
+        if (threadMXBean == null) return 0L;
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return Total number of garbage collections so far, over all collectors
+     */
+    private long getGCCount() {
+        long count = 0L;
+        for (GarbageCollectorMXBean gc: gcMXBeans) count += Math.max(0L, gc.getCollectionCount());
+        return count;
+    }
+
+    /**
+     * @return Total time spent so far in garbage collections, over all collectors, in milliseconds
+     */
+    private long getGCMillis() {
+        long millis = 0L;
+        for (GarbageCollectorMXBean gc: gcMXBeans) millis += Math.max(0L, gc.getCollectionTime());
+        return millis;
+    }
+}
@@ -148,6 +148,11 @@ public class Recorder {
     }
 
     public void writeTimeStampResults(boolean recordCoreIndicators, int time) {
+        FlightRecorderEvents.RecorderWrite event = null;
+        if (FlightRecorderEvents.AVAILABLE) {
+            event = new FlightRecorderEvents.RecorderWrite();
+            event.begin();
+        }
         if (recordCoreIndicators) {
             // If not at the first point in time...
             if (time > 0) {
@@ -292,6 +297,10 @@ public class Recorder {
                     region.regionalRentalMarketStats.getExpAvSalePrice());
             i++;
         }
+        if (event != null && event.shouldCommit()) {
+            event.time = time;
+            event.commit();
+        }
     }
 
     public void finishRun(boolean recordCoreIndicators) {
@@ -145,8 +145,9 @@ public class RegionalHousingMarketStats extends CollectorBase {
         // Re-initialise to zero variables computed before market clearing
         nBuyers = market.getBids().size();
         nBTLBuyers = 0;
-        for (HouseBuyerRecord bid: market.getBids()) {
-            if (bid.buyer.behaviour.isPropertyInvestor() && bid.buyer.getHome() != null) {
+        BidBook bids = market.getBids();
+        for (int i = 0; i < bids.size(); i++) {
+            if (bids.getBuyer(i).behaviour.isPropertyInvestor() && bids.getBuyer(i).getHome() != null) {
                 nBTLBuyers++;
             }
         }
@@ -172,15 +173,13 @@ public class RegionalHousingMarketStats extends CollectorBase {
 
 
         // Record bid prices and their average
-        int i = 0;
-        for(HouseBuyerRecord bid : market.getBids()) {
-            sumBidPrices += bid.getPrice();
-            bidPrices[i] = bid.getPrice();
-            ++i;
+        for (int i = 0; i < bids.size(); i++) {
+            sumBidPrices += bids.getPrice(i);
+            bidPrices[i] = bids.getPrice(i);
         }
 
         // Record offer prices, their average, and the number of empty and new houses
-        i = 0;
+        int i = 0;
         for(HousingMarketRecord sale : market.getOffersPQ()) {
             sumOfferPrices += sale.getPrice();
             offerPrices[i] = sale.getPrice();
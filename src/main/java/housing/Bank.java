@@ -43,6 +43,44 @@ public class Bank implements Serializable {
     private double                      firstTimeBuyerLTILimit; // Loan-To-Income internal upper limit for first-time buyer mortgages
     private double                      ownerOccupierLTILimit; // Loan-To-Income internal upper limit for owner-occupying mortgages
 
+    // Reusable preview where loan requests are computed before creating the actual mortgage contract
+    private MortgagePreview             loanPreview = new MortgagePreview();
+
+    // Affordability cache fields
+    private int                         affordabilityVersion; // Increased whenever the interest rate or any lending limit changes, invalidating cached affordability values
+
+    //----------------------//
+    //----- Subclasses -----//
+    //----------------------//
+
+    /**
+     * Class to memoise, for a given household, the maximum mortgage the bank is willing to approve within a time step,
+     * both for home (non-BTL) and for BTL mortgages. Each value is stamped with the time step and the bank's
+     * affordability version at which it was computed, so that it is only reused while neither has changed
+     */
+    static class AffordabilityCache implements Serializable {
+        private static final long serialVersionUID = 2417328861325431650L;
+
+        private double  maxMortgageHome;
+        private int     timeHome = -1;
+        private int     versionHome;
+        private double  maxMortgageBTL;
+        private int     timeBTL = -1;
+        private int     versionBTL;
+    }
+
+    /**
+     * Class to hold the terms of a mortgage approval without creating an actual MortgageAgreement. Instances are meant
+     * to be reused, so that exploring possible mortgages does not allocate any short-lived contract objects
+     */
+    static class MortgagePreview {
+        double  principal; // Principal that would be lent
+        double  downPayment; // Downpayment that would be required
+        double  monthlyPayment; // Monthly payment that would be due
+        double  monthlyInterestRate; // Monthly interest rate that would apply
+        double  purchasePrice; // Principal plus downpayment
+    }
+
     //------------------------//
     //----- Constructors -----//
     //------------------------//
@@ -72,6 +110,7 @@ public class Bank implements Serializable {
         // Setup initial LTI internal policy thresholds
         firstTimeBuyerLTILimit = config.BANK_MAX_FTB_LTI;
         ownerOccupierLTILimit = config.BANK_MAX_OO_LTI;
+        invalidateAffordabilityCache();
     }
 	
 	/**
@@ -81,6 +120,7 @@ public class Bank implements Serializable {
 		supplyTarget = config.BANK_CREDIT_SUPPLY_TARGET*totalPopulation;
 		setMortgageInterestRate(recalculateInterestRate());
 		resetMonthlyCounters();
+		invalidateAffordabilityCache();
 	}
 	
 	/**
@@ -92,6 +132,12 @@ public class Bank implements Serializable {
         nOOMortgages = 0;
 	}
 	
+	/**
+	 * Invalidate all cached affordability values. To be called whenever the interest rate or any of the limits used
+     * when computing the maximum mortgage change
+	 */
+	private void invalidateAffordabilityCache() { affordabilityVersion++; }
+
 	/**
 	 * Calculate the mortgage interest rate for next month based on the rate for this month and the resulting demand.
      * This assumes a linear relationship between interest rate and demand, and aims to halve the difference between
@@ -139,7 +185,8 @@ public class Bank implements Serializable {
 	}
 
 	/**
-	 * Method to arrange a Mortgage and get a MortgageAgreement object.
+	 * Method to arrange a Mortgage and get a MortgageAgreement object. This is the only place where an actual mortgage
+     * contract is created, exploratory requests should use previewApproval instead.
 	 * 
 	 * @param h The household requesting the mortgage
 	 * @param housePrice The price of the house that household h wants to buy
@@ -148,8 +195,14 @@ public class Bank implements Serializable {
 	 */
 	MortgageAgreement requestLoan(Household h, double housePrice, double desiredDownPayment, boolean isHome,
                                   House house) {
-		MortgageAgreement approval = requestApproval(h, housePrice, desiredDownPayment, isHome);
-		if(approval == null) return(null);
+		previewApproval(h, housePrice, desiredDownPayment, isHome, loanPreview);
+		MortgageAgreement approval = new MortgageAgreement(h, !isHome);
+		approval.principal = loanPreview.principal;
+		approval.downPayment = loanPreview.downPayment;
+		approval.monthlyPayment = loanPreview.monthlyPayment;
+		approval.setNPayments(config.derivedParams.N_PAYMENTS);
+		approval.monthlyInterestRate = loanPreview.monthlyInterestRate;
+		approval.purchasePrice = loanPreview.purchasePrice;
 		// --- if all's well, go ahead and arrange mortgage
 		supplyVal += approval.principal;
 		if(approval.principal > 0.0) {
@@ -161,6 +214,8 @@ public class Bank implements Serializable {
                         Model.centralBank.getLoanToIncomeLimit(h.isFirstTimeBuyer(), isHome)) {
                     ++nOOMortgagesOverLTI;
 				}
+                // The fraction of mortgages over the LTI limit has changed, and so might have the applicable limit
+                invalidateAffordabilityCache();
 			}
 		}
 		return approval;
@@ -168,16 +223,17 @@ public class Bank implements Serializable {
 
 	/**
 	 * Method to request a mortgage approval but not actually sign a mortgage contract. This is useful if you want to
-     * explore the details of the mortgage contract before deciding whether to actually go ahead and sign it.
+     * explore the details of the mortgage contract before deciding whether to actually go ahead and sign it. Instead
+     * of creating a MortgageAgreement, the terms of the approval are written into a caller-supplied, reusable
+     * MortgagePreview object.
 	 *
      * @param h The household requesting the mortgage
      * @param housePrice The price of the house that household h wants to buy
      * @param isHome True if household h plans to live in the house (non-BTL mortgage)
-     * @return The MortgageApproval object, or NULL if the mortgage is declined
+     * @param preview The MortgagePreview object where to write the terms of the approval
 	 */
-	MortgageAgreement requestApproval(Household h, double housePrice, double desiredDownPayment,
-                                      boolean isHome) {
-		MortgageAgreement approval = new MortgageAgreement(h, !isHome);
+	void previewApproval(Household h, double housePrice, double desiredDownPayment, boolean isHome,
+                         MortgagePreview preview) {
 		double r = getMortgageInterestRate()/config.constants.MONTHS_IN_YEAR; // monthly interest rate
 		double lti_principal, affordable_principal, icr_principal;
 		double liquidWealth = h.getBankBalance();
@@ -185,56 +241,83 @@ public class Bank implements Serializable {
 		if(isHome) liquidWealth += h.getHomeEquity();
 
 		// --- LTV constraint
-		approval.principal = housePrice*getLoanToValueLimit(h.isFirstTimeBuyer(), isHome);
+		preview.principal = housePrice*getLoanToValueLimit(h.isFirstTimeBuyer(), isHome);
 
 		if(isHome) {
 			// --- affordability constraint TODO: affordability for BTL?
 			affordable_principal = Math.max(0.0,config.CENTRAL_BANK_AFFORDABILITY_COEFF*h.getMonthlyNetTotalIncome())
                     / getMonthlyPaymentFactor(isHome);
-			approval.principal = Math.min(approval.principal, affordable_principal);
+			preview.principal = Math.min(preview.principal, affordable_principal);
 
 			// --- lti constraint
 			lti_principal = h.getAnnualGrossEmploymentIncome()*getLoanToIncomeLimit(h.isFirstTimeBuyer(), isHome);
-			approval.principal = Math.min(approval.principal, lti_principal);
+			preview.principal = Math.min(preview.principal, lti_principal);
 		} else {
 			// --- BTL ICR constraint
 			icr_principal = Model.rentalMarketStats.getExpAvFlowYield()*housePrice
                     /(Model.centralBank.getInterestCoverRatioLimit(isHome)*config.CENTRAL_BANK_BTL_STRESSED_INTEREST);
-			approval.principal = Math.min(approval.principal, icr_principal);
+			preview.principal = Math.min(preview.principal, icr_principal);
 		}
 		
-		approval.downPayment = housePrice - approval.principal;
+		preview.downPayment = housePrice - preview.principal;
 
-        if(liquidWealth < approval.downPayment) {
+        if(liquidWealth < preview.downPayment) {
 			System.out.println("Failed down-payment constraint: bank balance = " + liquidWealth + " downpayment = "
-                    + approval.downPayment);
+                    + preview.downPayment);
 		}
 		// --- allow larger downpayments
 		if(desiredDownPayment < 0.0) desiredDownPayment = 0.0;
 		if(desiredDownPayment > liquidWealth) desiredDownPayment = liquidWealth;
 		if(desiredDownPayment > housePrice) desiredDownPayment = housePrice;
-		if(desiredDownPayment > approval.downPayment) {
-			approval.downPayment = desiredDownPayment;
-			approval.principal = housePrice - desiredDownPayment;
+		if(desiredDownPayment > preview.downPayment) {
+			preview.downPayment = desiredDownPayment;
+			preview.principal = housePrice - desiredDownPayment;
 		}
 		
-		approval.monthlyPayment = approval.principal*getMonthlyPaymentFactor(isHome);
-		approval.nPayments = config.derivedParams.N_PAYMENTS;
-		approval.monthlyInterestRate = r;
-		approval.purchasePrice = approval.principal + approval.downPayment;
-
-		return approval;
+		preview.monthlyPayment = preview.principal*getMonthlyPaymentFactor(isHome);
+		preview.monthlyInterestRate = r;
+		preview.purchasePrice = preview.principal + preview.downPayment;
 	}
 
 	/**
 	 * Find, for a given household, the maximum house price that this mortgage-lender is willing to approve a mortgage
-     * for.
+     * for. Within a time step, a household can ask for this several times (when bidding, when deciding whether to rent
+     * or buy, and when deciding whether and how much to bid for an investment property), so the result is memoised
+     * per household until the next time step or until the interest rate or any lending limit changes.
 	 * 
 	 * @param h The household applying for the mortgage
      * @param isHome True if household h plans to live in the house (non-BTL mortgage)
 	 * @return The maximum house price that this mortgage-lender is willing to approve a mortgage for
 	 */
 	double getMaxMortgage(Household h, boolean isHome) {
+        AffordabilityCache cache = h.affordabilityCache;
+        int time = Model.getTime();
+        if (isHome) {
+            if (cache.timeHome != time || cache.versionHome != affordabilityVersion) {
+                cache.maxMortgageHome = computeMaxMortgage(h, true);
+                cache.timeHome = time;
+                cache.versionHome = affordabilityVersion;
+            }
+            return cache.maxMortgageHome;
+        } else {
+            if (cache.timeBTL != time || cache.versionBTL != affordabilityVersion) {
+                cache.maxMortgageBTL = computeMaxMortgage(h, false);
+                cache.timeBTL = time;
+                cache.versionBTL = affordabilityVersion;
+            }
+            return cache.maxMortgageBTL;
+        }
+    }
+
+    /**
+     * Compute, without any memoisation, the maximum house price that this mortgage-lender is willing to approve a
+     * mortgage for.
+     *
+     * @param h The household applying for the mortgage
+     * @param isHome True if household h plans to live in the house (non-BTL mortgage)
+     * @return The maximum house price that this mortgage-lender is willing to approve a mortgage for
+     */
+	private double computeMaxMortgage(Household h, boolean isHome) {
 		double max;
 		double pdi_max; // disposable income constraint
 		double lti_max; // loan to income constraint
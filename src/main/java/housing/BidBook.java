@@ -0,0 +1,109 @@
+package housing;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**************************************************************************************************
+ * Class to store the bids made on a housing market during a time step as parallel arrays of bid
+ * prices, buyers and bid types, which are reused from one time step to the next. HouseBuyerRecord
+ * objects are only created, lazily, for those bids that get matched with an offer, so that the
+ * vast majority of bids, which are never matched, do not allocate any memory.
+ *
+ *************************************************************************************************/
+public class BidBook implements Serializable {
+    private static final long serialVersionUID = -6071409936404926536L;
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private double []               prices;
+    private Household []            buyers;
+    private boolean []              btl; // True for buy-to-let bids, false for owner-occupier or rental bids
+    private HouseBuyerRecord []     records; // Records already created for each bid, null if not yet created
+    private int                     size;
+
+    //------------------------//
+    //----- Constructors -----//
+    //------------------------//
+
+    /**
+     * @param initialCapacity Number of bids that can be stored before the arrays need to grow
+     */
+    BidBook(int initialCapacity) {
+        initialCapacity = Math.max(initialCapacity, 16);
+        prices = new double[initialCapacity];
+        buyers = new Household[initialCapacity];
+        btl = new boolean[initialCapacity];
+        records = new HouseBuyerRecord[initialCapacity];
+        size = 0;
+    }
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    /**
+     * Add a new bid to the book, without creating any record for it
+     *
+     * @param buyer Household making the bid
+     * @param price Price the household is willing to pay
+     * @param isBTL True for a buy-to-let bid, false otherwise
+     */
+    void add(Household buyer, double price, boolean isBTL) {
+        if (size == prices.length) grow();
+        prices[size] = price;
+        buyers[size] = buyer;
+        btl[size] = isBTL;
+        records[size] = null;
+        size++;
+    }
+
+    /**
+     * Add to the book a bid whose record already exists, such as a failed bid returned to the market after a clearing
+     * round
+     *
+     * @param record Record of the bid
+     */
+    void add(HouseBuyerRecord record) {
+        add(record.buyer, record.getPrice(), record.getClass() == BTLBuyerRecord.class);
+        records[size - 1] = record;
+    }
+
+    /**
+     * @return Record for the i-th bid, created only the first time it is requested
+     */
+    HouseBuyerRecord getRecord(int i) {
+        if (records[i] == null) {
+            records[i] = btl[i] ? new BTLBuyerRecord(buyers[i], prices[i]) : new HouseBuyerRecord(buyers[i], prices[i]);
+        }
+        return records[i];
+    }
+
+    /**
+     * Remove all bids from the book, keeping its capacity, and releasing references to buyers and records
+     */
+    void clear() {
+        Arrays.fill(buyers, 0, size, null);
+        Arrays.fill(records, 0, size, null);
+        size = 0;
+    }
+
+    private void grow() {
+        int capacity = 2*prices.length;
+        prices = Arrays.copyOf(prices, capacity);
+        buyers = Arrays.copyOf(buyers, capacity);
+        btl = Arrays.copyOf(btl, capacity);
+        records = Arrays.copyOf(records, capacity);
+    }
+
+    //----- Getter/setter methods -----//
+
+    public int size() { return size; }
+
+    public double getPrice(int i) { return prices[i]; }
+
+    public Household getBuyer(int i) { return buyers[i]; }
+
+    public boolean isBTL(int i) { return btl[i]; }
+}
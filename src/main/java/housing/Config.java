@@ -2,11 +2,12 @@ package housing;
 
 import java.io.FileReader;
 import java.io.IOException;
-import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
-import java.lang.Integer;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**************************************************************************************************
  * Class to encapsulate all the configuration parameters of the model. It also contains all methods
@@ -25,146 +26,150 @@ public class Config {
     /** Declaration of parameters **/
 
     // General model control parameters
-    int SEED;                               // Seed for the random number generator
-    int N_STEPS;				            // Simulation duration in time steps
-    int TIME_TO_START_RECORDING;	        // Time steps before recording statistics (initialisation time)
-    int N_SIMS; 					        // Number of simulations to run (monte-carlo)
-    boolean recordCoreIndicators;		    // True to write time series for each core indicator
-    boolean recordMicroData;			    // True to write micro data for each transaction made
+    final int SEED;                         // Seed for the random number generator
+    final int N_STEPS;                      // Simulation duration in time steps
+    final int TIME_TO_START_RECORDING;      // Time steps before recording statistics (initialisation time)
+    final int N_SIMS;                       // Number of simulations to run (monte-carlo)
+    final boolean recordCoreIndicators;     // True to write time series for each core indicator
+    final boolean recordMicroData;          // True to write micro data for each transaction made
+    final boolean recordPerformance;        // True to write time series of wall time per simulation phase
+    final boolean parallelHouseholdFinances; // True to update household finances in parallel fork-join tasks
+    final boolean fastMath;                 // True to use approximate exp/log in household behaviour
 
     // House parameters
-    public int N_QUALITY;                   // Number of quality bands for houses
+    public final int N_QUALITY;             // Number of quality bands for houses
 
     // Housing market parameters
-    int DAYS_UNDER_OFFER;                       // Time (in days) that a house remains under offer
-    double BIDUP;                               // Smallest proportional increase in price that can cause a gazump
-    public double MARKET_AVERAGE_PRICE_DECAY;   // Decay constant for the exponential moving average of sale prices
-    public double INITIAL_HPI;                  // Initial housing price index
-    double HPI_MEDIAN;                          // Median house price
-    public double HPI_SHAPE;                    // Shape parameter for the log-normal distribution of housing prices
-    public double AVERAGE_TENANCY_LENGTH;       // Average number of months a tenant will stay in a rented house
+    final int DAYS_UNDER_OFFER;                     // Time (in days) that a house remains under offer
+    final double BIDUP;                             // Smallest proportional increase in price that can cause a gazump
+    final double CLEARING_MIN_MATCH_RATE;           // Fraction of bids leading to a transaction below which clearing rounds stop
+    public final double MARKET_AVERAGE_PRICE_DECAY; // Decay constant for the exponential moving average of sale prices
+    public final double INITIAL_HPI;                // Initial housing price index
+    final double HPI_MEDIAN;                        // Median house price
+    public final double HPI_SHAPE;                  // Shape parameter for the log-normal distribution of housing prices
+    public final double AVERAGE_TENANCY_LENGTH;     // Average number of months a tenant will stay in a rented house
     // TODO: Only used to initiate some exponential averaging. Remove it!
-    public double RENT_GROSS_YIELD;             // Profit margin for buy-to-let investors
+    public final double RENT_GROSS_YIELD;       // Profit margin for buy-to-let investors
 
     // Demographic parameters
-    public int TARGET_POPULATION;           // Target number of households
-    public double FUTURE_BIRTH_RATE;        // Future birth rate (births per year per capita), calibrated with flux of FTBs
+    public final int TARGET_POPULATION;     // Target number of households
+    public final double FUTURE_BIRTH_RATE;  // Future birth rate (births per year per capita), calibrated with flux of FTBs
 
     // Household parameters
-    double RETURN_ON_FINANCIAL_WEALTH;      // Monthly percentage growth of financial investments
-    int TENANCY_LENGTH_AVERAGE;             // Average number of months a tenant will stay in a rented house
-    int TENANCY_LENGTH_EPSILON;             // Standard deviation of the noise in determining the tenancy length
+    final double RETURN_ON_FINANCIAL_WEALTH; // Monthly percentage growth of financial investments
+    final int TENANCY_LENGTH_AVERAGE;        // Average number of months a tenant will stay in a rented house
+    final int TENANCY_LENGTH_EPSILON;        // Standard deviation of the noise in determining the tenancy length
 
     // Household behaviour parameters: buy-to-let
-    double P_INVESTOR;                      // Prior probability of being (wanting to be) a BTL investor
-    double MIN_INVESTOR_PERCENTILE;         // Minimum income percentile for a household to be a BTL investor
-    double FUNDAMENTALIST_CAP_GAIN_COEFF;   // Weight that fundamentalists put on cap gain
-    double TREND_CAP_GAIN_COEFF;			// Weight that trend-followers put on cap gain
-    double P_FUNDAMENTALIST; 			    // Probability that a BTL investor is a fundamentalist versus a trend-follower
-    boolean BTL_YIELD_SCALING;			    // Chooses between two possible equations for BTL investors to make their buy/sell decisions
+    final double P_INVESTOR;                    // Prior probability of being (wanting to be) a BTL investor
+    final double MIN_INVESTOR_PERCENTILE;       // Minimum income percentile for a household to be a BTL investor
+    final double FUNDAMENTALIST_CAP_GAIN_COEFF; // Weight that fundamentalists put on cap gain
+    final double TREND_CAP_GAIN_COEFF;          // Weight that trend-followers put on cap gain
+    final double P_FUNDAMENTALIST;              // Probability that a BTL investor is a fundamentalist versus a trend-follower
+    final boolean BTL_YIELD_SCALING;            // Chooses between two possible equations for BTL investors to make their buy/sell decisions
     // Household behaviour parameters: rent
-    double DESIRED_RENT_INCOME_FRACTION;    // Desired proportion of income to be spent on rent
-    double PSYCHOLOGICAL_COST_OF_RENTING;   // Annual psychological cost of renting
-    double SENSITIVITY_RENT_OR_PURCHASE;    // Sensitivity parameter of the decision between buying and renting
+    final double DESIRED_RENT_INCOME_FRACTION;  // Desired proportion of income to be spent on rent
+    final double PSYCHOLOGICAL_COST_OF_RENTING; // Annual psychological cost of renting
+    final double SENSITIVITY_RENT_OR_PURCHASE;  // Sensitivity parameter of the decision between buying and renting
     // Household behaviour parameters: general
-    double BANK_BALANCE_FOR_CASH_DOWNPAYMENT;   // If bankBalance/housePrice is above this, payment will be made fully in cash
-    double HPA_EXPECTATION_FACTOR;              // Weight assigned to current trend when computing expectations
-    public int HPA_YEARS_TO_CHECK;              // Number of years of the HPI record to check when computing the annual HPA
-    double HOLD_PERIOD;                         // Average period, in years, for which owner-occupiers hold their houses
+    final double BANK_BALANCE_FOR_CASH_DOWNPAYMENT; // If bankBalance/housePrice is above this, payment will be made fully in cash
+    final double HPA_EXPECTATION_FACTOR;            // Weight assigned to current trend when computing expectations
+    public final int HPA_YEARS_TO_CHECK;            // Number of years of the HPI record to check when computing the annual HPA
+    final double HOLD_PERIOD;                       // Average period, in years, for which owner-occupiers hold their houses
     // Household behaviour parameters: sale price reduction
-    double P_SALE_PRICE_REDUCE;             // Monthly probability of reducing the price of a house on the market
-    double REDUCTION_MU;                    // Mean percentage reduction for prices of houses on the market
-    double REDUCTION_SIGMA;                 // Standard deviation of percentage reductions for prices of houses on the market
+    final double P_SALE_PRICE_REDUCE;       // Monthly probability of reducing the price of a house on the market
+    final double REDUCTION_MU;              // Mean percentage reduction for prices of houses on the market
+    final double REDUCTION_SIGMA;           // Standard deviation of percentage reductions for prices of houses on the market
     // Household behaviour parameters: consumption
-    double CONSUMPTION_FRACTION;            // Fraction of monthly budget for consumption (monthly budget = bank balance - minimum desired bank balance)
-    double ESSENTIAL_CONSUMPTION_FRACTION;  // Fraction of Government support necessarily spent monthly by all households as essential consumption
+    final double CONSUMPTION_FRACTION;           // Fraction of monthly budget for consumption (monthly budget = bank balance - minimum desired bank balance)
+    final double ESSENTIAL_CONSUMPTION_FRACTION; // Fraction of Government support necessarily spent monthly by all households as essential consumption
     // Household behaviour parameters: initial sale price
-    double SALE_MARKUP;                     // Initial markup over average price of same quality houses
-    double SALE_WEIGHT_DAYS_ON_MARKET;      // Weight of the days-on-market effect
-    double SALE_EPSILON;                    // Standard deviation of the noise
+    final double SALE_MARKUP;                // Initial markup over average price of same quality houses
+    final double SALE_WEIGHT_DAYS_ON_MARKET; // Weight of the days-on-market effect
+    final double SALE_EPSILON;               // Standard deviation of the noise
     // Household behaviour parameters: buyer's desired expenditure
-    double BUY_SCALE;                       // Scale, number of annual salaries the buyer is willing to spend for buying a house
-    double BUY_WEIGHT_HPA;                  // Weight given to house price appreciation when deciding how much to spend for buying a house
-    double BUY_EPSILON;                     // Standard deviation of the noise
+    final double BUY_SCALE;                 // Scale, number of annual salaries the buyer is willing to spend for buying a house
+    final double BUY_WEIGHT_HPA;            // Weight given to house price appreciation when deciding how much to spend for buying a house
+    final double BUY_EPSILON;               // Standard deviation of the noise
     // Household behaviour parameters: demand rent
-    double RENT_MARKUP;                         // Markup over average rent demanded for houses of the same quality
-    double RENT_EQ_MONTHS_ON_MARKET;            // Number of months on the market in an equilibrium situation
-    double RENT_EPSILON;                        // Standard deviation of the noise
-    public double RENT_MAX_AMORTIZATION_PERIOD; // Maximum period BTL investors are ready to wait to get back their investment, this determines their minimum demanded rent
-    double RENT_REDUCTION;                      // Percentage reduction of demanded rent for every month the property is in the market, not rented
+    final double RENT_MARKUP;                         // Markup over average rent demanded for houses of the same quality
+    final double RENT_EQ_MONTHS_ON_MARKET;            // Number of months on the market in an equilibrium situation
+    final double RENT_EPSILON;                        // Standard deviation of the noise
+    public final double RENT_MAX_AMORTIZATION_PERIOD; // Maximum period BTL investors are ready to wait to get back their investment, this determines their minimum demanded rent
+    final double RENT_REDUCTION;                      // Percentage reduction of demanded rent for every month the property is in the market, not rented
     // Household behaviour parameters: downpayment
-    double DOWNPAYMENT_FTB_SCALE;           // Scale parameter for the log-normal distribution of downpayments by first-time-buyers
-    double DOWNPAYMENT_FTB_SHAPE;           // Shape parameter for the log-normal distribution of downpayments by first-time-buyers
-    double DOWNPAYMENT_OO_SCALE;            // Scale parameter for the log-normal distribution of downpayments by owner-occupiers
-    double DOWNPAYMENT_OO_SHAPE;            // Shape parameter for the log-normal distribution of downpayments by owner-occupiers
-    double DOWNPAYMENT_MIN_INCOME;          // Minimum income percentile to consider any downpayment, below this level, downpayment is set to 0
-    double DOWNPAYMENT_BTL_MEAN;            // Average downpayment, as percentage of house price, by but-to-let investors
-    double DOWNPAYMENT_BTL_EPSILON;         // Standard deviation of the noise
+    final double DOWNPAYMENT_FTB_SCALE;     // Scale parameter for the log-normal distribution of downpayments by first-time-buyers
+    final double DOWNPAYMENT_FTB_SHAPE;     // Shape parameter for the log-normal distribution of downpayments by first-time-buyers
+    final double DOWNPAYMENT_OO_SCALE;      // Scale parameter for the log-normal distribution of downpayments by owner-occupiers
+    final double DOWNPAYMENT_OO_SHAPE;      // Shape parameter for the log-normal distribution of downpayments by owner-occupiers
+    final double DOWNPAYMENT_MIN_INCOME;    // Minimum income percentile to consider any downpayment, below this level, downpayment is set to 0
+    final double DOWNPAYMENT_BTL_MEAN;      // Average downpayment, as percentage of house price, by but-to-let investors
+    final double DOWNPAYMENT_BTL_EPSILON;   // Standard deviation of the noise
     // Household behaviour parameters: desired bank balance
-    double DESIRED_BANK_BALANCE_ALPHA;
-    double DESIRED_BANK_BALANCE_BETA;
-    double DESIRED_BANK_BALANCE_EPSILON;
+    final double DESIRED_BANK_BALANCE_ALPHA;
+    final double DESIRED_BANK_BALANCE_BETA;
+    final double DESIRED_BANK_BALANCE_EPSILON;
     // Household behaviour parameters: selling decision
-    double DECISION_TO_SELL_ALPHA;          // Weight of houses per capita effect
-    double DECISION_TO_SELL_BETA;           // Weight of interest rate effect
-    double DECISION_TO_SELL_HPC;            // TODO: fudge parameter, explicitly explained otherwise in the paper
-    double DECISION_TO_SELL_INTEREST;       // TODO: fudge parameter, explicitly explained otherwise in the paper
+    final double DECISION_TO_SELL_ALPHA;    // Weight of houses per capita effect
+    final double DECISION_TO_SELL_BETA;     // Weight of interest rate effect
+    final double DECISION_TO_SELL_HPC;      // TODO: fudge parameter, explicitly explained otherwise in the paper
+    final double DECISION_TO_SELL_INTEREST; // TODO: fudge parameter, explicitly explained otherwise in the paper
     // Household behaviour parameters: BTL buy/sell choice
-    double BTL_CHOICE_INTENSITY;            // Shape parameter, or intensity of choice on effective yield
-    double BTL_CHOICE_MIN_BANK_BALANCE;     // Minimun bank balance, as a percentage of the desired bank balance, to buy new properties
+    final double BTL_CHOICE_INTENSITY;        // Shape parameter, or intensity of choice on effective yield
+    final double BTL_CHOICE_MIN_BANK_BALANCE; // Minimun bank balance, as a percentage of the desired bank balance, to buy new properties
 
     // Bank parameters
-    int MORTGAGE_DURATION_YEARS;            // Mortgage duration in years
-    double BANK_INITIAL_BASE_RATE;          // Bank initial base-rate (currently remains unchanged)
-    double BANK_CREDIT_SUPPLY_TARGET;       // Bank's target supply of credit per household per month
-    double BANK_MAX_FTB_LTV;                // Maximum LTV ratio that the private bank would allow for first-time-buyers
-    double BANK_MAX_OO_LTV;                 // Maximum LTV ratio that the private bank would allow for owner-occupiers
-    double BANK_MAX_BTL_LTV;                // Maximum LTV ratio that the private bank would allow for BTL investors
-    double BANK_MAX_FTB_LTI;                // Maximum LTI ratio that the private bank would allow for first-time-buyers (private bank's hard limit)
-    double BANK_MAX_OO_LTI;                 // Maximum LTI ratio that the private bank would allow for owner-occupiers (private bank's hard limit)
+    final int MORTGAGE_DURATION_YEARS;      // Mortgage duration in years
+    final double BANK_INITIAL_BASE_RATE;    // Bank initial base-rate (currently remains unchanged)
+    final double BANK_CREDIT_SUPPLY_TARGET; // Bank's target supply of credit per household per month
+    final double BANK_MAX_FTB_LTV;          // Maximum LTV ratio that the private bank would allow for first-time-buyers
+    final double BANK_MAX_OO_LTV;           // Maximum LTV ratio that the private bank would allow for owner-occupiers
+    final double BANK_MAX_BTL_LTV;          // Maximum LTV ratio that the private bank would allow for BTL investors
+    final double BANK_MAX_FTB_LTI;          // Maximum LTI ratio that the private bank would allow for first-time-buyers (private bank's hard limit)
+    final double BANK_MAX_OO_LTI;           // Maximum LTI ratio that the private bank would allow for owner-occupiers (private bank's hard limit)
 
 
     // Central bank parameters
-    double CENTRAL_BANK_MAX_FTB_LTI;		    // Maximum LTI ratio that the bank would allow for first-time-buyers when not regulated
-    double CENTRAL_BANK_MAX_OO_LTI;		        // Maximum LTI ratio that the bank would allow for owner-occupiers when not regulated
-    double CENTRAL_BANK_FRACTION_OVER_MAX_LTI;  // Maximum fraction of mortgages that the bank can give over the LTI ratio limit
-    double CENTRAL_BANK_AFFORDABILITY_COEFF;    // Maximum fraction of the household's income to be spent on mortgage repayments under stressed conditions
-    double CENTRAL_BANK_BTL_STRESSED_INTEREST;  // Interest rate under stressed condition for BTL investors when calculating interest coverage ratios (ICR)
-    double CENTRAL_BANK_MAX_ICR;                // Interest coverage ratio (ICR) limit imposed by the central bank
+    final double CENTRAL_BANK_MAX_FTB_LTI;           // Maximum LTI ratio that the bank would allow for first-time-buyers when not regulated
+    final double CENTRAL_BANK_MAX_OO_LTI;            // Maximum LTI ratio that the bank would allow for owner-occupiers when not regulated
+    final double CENTRAL_BANK_FRACTION_OVER_MAX_LTI; // Maximum fraction of mortgages that the bank can give over the LTI ratio limit
+    final double CENTRAL_BANK_AFFORDABILITY_COEFF;   // Maximum fraction of the household's income to be spent on mortgage repayments under stressed conditions
+    final double CENTRAL_BANK_BTL_STRESSED_INTEREST; // Interest rate under stressed condition for BTL investors when calculating interest coverage ratios (ICR)
+    final double CENTRAL_BANK_MAX_ICR;               // Interest coverage ratio (ICR) limit imposed by the central bank
 
     // Construction sector parameters
-    double CONSTRUCTION_HOUSES_PER_HOUSEHOLD;   // Target ratio of houses per household
+    final double CONSTRUCTION_HOUSES_PER_HOUSEHOLD; // Target ratio of houses per household
 
     // Government parameters
-    double GOVERNMENT_PERSONAL_ALLOWANCE_LIMIT;         // Maximum personal allowance
-    public double GOVERNMENT_MONTHLY_INCOME_SUPPORT;    // Minimum monthly earnings for a married couple from income support
+    final double GOVERNMENT_PERSONAL_ALLOWANCE_LIMIT;      // Maximum personal allowance
+    public final double GOVERNMENT_MONTHLY_INCOME_SUPPORT; // Minimum monthly earnings for a married couple from income support
 
     // Collectors parameters
-    double UK_HOUSEHOLDS;                       // Approximate number of households in UK, used to scale up results for core indicators
-    boolean MORTGAGE_DIAGNOSTICS_ACTIVE;        // Whether to record mortgage statistics
+    final double UK_HOUSEHOLDS;                 // Approximate number of households in UK, used to scale up results for core indicators
+    final boolean MORTGAGE_DIAGNOSTICS_ACTIVE;  // Whether to record mortgage statistics
 
     /** Declaration of addresses **/        // They must be public to be accessed from data package
 
     // Data addresses: Government
-    public String DATA_TAX_RATES;                   // Address for tax bands and rates data
-    public String DATA_NATIONAL_INSURANCE_RATES;    // Address for national insurance bands and rates data
+    public final String DATA_TAX_RATES;                // Address for tax bands and rates data
+    public final String DATA_NATIONAL_INSURANCE_RATES; // Address for national insurance bands and rates data
 
     // Data addresses: EmploymentIncome
-    public String DATA_INCOME_GIVEN_AGE;            // Address for conditional probability of income band given age band
+    public final String DATA_INCOME_GIVEN_AGE;      // Address for conditional probability of income band given age band
 
     // Data addresses: Demographics
-    public String DATA_AGE_MARGINAL_PDF;            // Address for target initial age probability density for household representative person
-    public String DATA_HOUSEHOLD_AGE_AT_BIRTH_PDF;  // Address for pdf of household representative person's age at household birth
-    public String DATA_DEATH_PROB_GIVEN_AGE;        // Address for data on the probability of death given the age of the household representative person
-    public String DATA_REAL_POPULATION_PER_REGION;  // Address for data on real population per region
+    public final String DATA_AGE_MARGINAL_PDF;           // Address for target initial age probability density for household representative person
+    public final String DATA_HOUSEHOLD_AGE_AT_BIRTH_PDF; // Address for pdf of household representative person's age at household birth
+    public final String DATA_DEATH_PROB_GIVEN_AGE;       // Address for data on the probability of death given the age of the household representative person
+    public final String DATA_REAL_POPULATION_PER_REGION; // Address for data on real population per region
 
     /** Construction of objects to contain derived parameters and constants **/
 
     // Create object containing all constants
-    public Config.Constants constants = new Constants();
+    public final Config.Constants constants = new Constants();
 
-    // Finally, create object containing all derived parameters
-    public Config.DerivedParams derivedParams = new DerivedParams();
+    // Finally, object containing all derived parameters, created once all configuration parameters have been read
+    public final Config.DerivedParams derivedParams;
 
     /**
      * Class to contain all parameters which are not read from the configuration (.properties) file, but derived,
@@ -172,22 +177,46 @@ public class Config {
      */
     public class DerivedParams {
         // Housing market parameters
-        public int HPI_RECORD_LENGTH;   // Number of months to record HPI (to compute price growth at different time scales)
-        double MONTHS_UNDER_OFFER;      // Time (in months) that a house remains under offer
-        double T;                       // Characteristic number of data-points over which to average market statistics
-        public double E;                // Decay constant for averaging days on market (in transactions)
-        public double G;                // Decay constant for averageListPrice averaging (in transactions)
-        public double HPI_LOG_MEDIAN;   // Logarithmic median house price (scale parameter of the log-normal distribution)
-        double HPI_REFERENCE;           // Mean of reference house prices
+        public final int HPI_RECORD_LENGTH;     // Number of months to record HPI (to compute price growth at different time scales)
+        final double MONTHS_UNDER_OFFER;        // Time (in months) that a house remains under offer
+        final double T;                         // Characteristic number of data-points over which to average market statistics
+        public final double E;                  // Decay constant for averaging days on market (in transactions)
+        public final double G;                  // Decay constant for averageListPrice averaging (in transactions)
+        public final double HPI_LOG_MEDIAN;     // Logarithmic median house price (scale parameter of the log-normal distribution)
+        final double HPI_REFERENCE;             // Mean of reference house prices
         // Household behaviour parameters: general
-        double MONTHLY_P_SELL;          // Monthly probability for owner-occupiers to sell their houses
+        final double MONTHLY_P_SELL;            // Monthly probability for owner-occupiers to sell their houses
         // Bank parameters
-        int N_PAYMENTS;                 // Number of monthly repayments (mortgage duration in months)
+        final int N_PAYMENTS;                   // Number of monthly repayments (mortgage duration in months)
         // House rental market parameters
-        public double K;                // Decay factor for exponential moving average of gross yield from rentals (averageSoldGrossYield)
-        public double KL;               // Decay factor for long-term exponential moving average of gross yield from rentals (longTermAverageGrossYield)
+        public final double K;                  // Decay factor for exponential moving average of gross yield from rentals (averageSoldGrossYield)
+        public final double KL;                 // Decay factor for long-term exponential moving average of gross yield from rentals (longTermAverageGrossYield)
         // Collectors parameters
-        double AFFORDABILITY_DECAY; 	// Decay constant for the exponential moving average of affordability
+        final double AFFORDABILITY_DECAY;       // Decay constant for the exponential moving average of affordability
+
+        /**
+         * Compute and set values for all derived parameters. Must only be called once all configuration parameters
+         * have been read
+         */
+        private DerivedParams() {
+            // Housing market parameters
+            HPI_RECORD_LENGTH = HPA_YEARS_TO_CHECK*constants.MONTHS_IN_YEAR + 3;  // Plus three months in a quarter
+            MONTHS_UNDER_OFFER = (double)DAYS_UNDER_OFFER/constants.DAYS_IN_MONTH;
+            T = 0.02*TARGET_POPULATION;                 // TODO: Clarify where does this 0.2 come from, and provide explanation for this formula
+            E = Math.exp(-1.0/T);                       // TODO: Provide explanation for this formula
+            G = Math.exp(-N_QUALITY/T);                 // TODO: Provide explanation for this formula
+            HPI_LOG_MEDIAN = Math.log(HPI_MEDIAN);
+            HPI_REFERENCE = Math.exp(HPI_LOG_MEDIAN + HPI_SHAPE*HPI_SHAPE/2.0);
+            // Household behaviour parameters: general
+            MONTHLY_P_SELL = 1.0/(HOLD_PERIOD*constants.MONTHS_IN_YEAR);
+            // Bank parameters
+            N_PAYMENTS = MORTGAGE_DURATION_YEARS*constants.MONTHS_IN_YEAR;
+            // House rental market parameters
+            K = Math.exp(-10000.0/(TARGET_POPULATION*50.0));  // TODO: Are these decay factors well-suited? Any explanation, reasoning behind the numbers chosen?
+            KL = Math.exp(-10000.0/(TARGET_POPULATION*50.0*200.0));   // TODO: Also, they are not reported in the paper!
+            // Collectors parameters
+            AFFORDABILITY_DECAY = Math.exp(-1.0/100.0);
+        }
 
         public double getAffordabilityDecay() {
           return AFFORDABILITY_DECAY;
@@ -220,15 +249,114 @@ public class Config {
     //------------------------//
 
     /**
-     * Empty constructor, mainly used for copying local instances of the Model Config instance into other classes
-     */
-    public Config () {}
-
-    /**
-     * Constructor with full initialization, used only for the original Model Config instance
+     * Constructor with full initialization, used only for the original Model Config instance. Each parameter is bound
+     * explicitly to its property in the configuration (.properties) file, so that all fields can be final. Any problems
+     * found while reading the file (missing, malformed or undeclared properties) are collected and reported together
+     * at the end by means of a single InvalidConfigException
+     *
+     * @param configFileName String with name of configuration (.properties) file (address inside source folder)
      */
     public Config (String configFileName) {
-        getConfigValues(configFileName);
+        PropertiesBinder binder = new PropertiesBinder(configFileName);
+        SEED = binder.getInt("SEED");
+        N_STEPS = binder.getInt("N_STEPS");
+        TIME_TO_START_RECORDING = binder.getInt("TIME_TO_START_RECORDING");
+        N_SIMS = binder.getInt("N_SIMS");
+        recordCoreIndicators = binder.getBoolean("recordCoreIndicators");
+        recordMicroData = binder.getBoolean("recordMicroData");
+        recordPerformance = binder.getBoolean("recordPerformance");
+        parallelHouseholdFinances = binder.getBoolean("parallelHouseholdFinances");
+        fastMath = binder.getBoolean("fastMath");
+        N_QUALITY = binder.getInt("N_QUALITY");
+        DAYS_UNDER_OFFER = binder.getInt("DAYS_UNDER_OFFER");
+        BIDUP = binder.getDouble("BIDUP");
+        CLEARING_MIN_MATCH_RATE = binder.getDouble("CLEARING_MIN_MATCH_RATE");
+        MARKET_AVERAGE_PRICE_DECAY = binder.getDouble("MARKET_AVERAGE_PRICE_DECAY");
+        INITIAL_HPI = binder.getDouble("INITIAL_HPI");
+        HPI_MEDIAN = binder.getDouble("HPI_MEDIAN");
+        HPI_SHAPE = binder.getDouble("HPI_SHAPE");
+        AVERAGE_TENANCY_LENGTH = binder.getDouble("AVERAGE_TENANCY_LENGTH");
+        RENT_GROSS_YIELD = binder.getDouble("RENT_GROSS_YIELD");
+        TARGET_POPULATION = binder.getInt("TARGET_POPULATION");
+        FUTURE_BIRTH_RATE = binder.getDouble("FUTURE_BIRTH_RATE");
+        RETURN_ON_FINANCIAL_WEALTH = binder.getDouble("RETURN_ON_FINANCIAL_WEALTH");
+        TENANCY_LENGTH_AVERAGE = binder.getInt("TENANCY_LENGTH_AVERAGE");
+        TENANCY_LENGTH_EPSILON = binder.getInt("TENANCY_LENGTH_EPSILON");
+        P_INVESTOR = binder.getDouble("P_INVESTOR");
+        MIN_INVESTOR_PERCENTILE = binder.getDouble("MIN_INVESTOR_PERCENTILE");
+        FUNDAMENTALIST_CAP_GAIN_COEFF = binder.getDouble("FUNDAMENTALIST_CAP_GAIN_COEFF");
+        TREND_CAP_GAIN_COEFF = binder.getDouble("TREND_CAP_GAIN_COEFF");
+        P_FUNDAMENTALIST = binder.getDouble("P_FUNDAMENTALIST");
+        BTL_YIELD_SCALING = binder.getBoolean("BTL_YIELD_SCALING");
+        DESIRED_RENT_INCOME_FRACTION = binder.getDouble("DESIRED_RENT_INCOME_FRACTION");
+        PSYCHOLOGICAL_COST_OF_RENTING = binder.getDouble("PSYCHOLOGICAL_COST_OF_RENTING");
+        SENSITIVITY_RENT_OR_PURCHASE = binder.getDouble("SENSITIVITY_RENT_OR_PURCHASE");
+        BANK_BALANCE_FOR_CASH_DOWNPAYMENT = binder.getDouble("BANK_BALANCE_FOR_CASH_DOWNPAYMENT");
+        HPA_EXPECTATION_FACTOR = binder.getDouble("HPA_EXPECTATION_FACTOR");
+        HPA_YEARS_TO_CHECK = binder.getInt("HPA_YEARS_TO_CHECK");
+        HOLD_PERIOD = binder.getDouble("HOLD_PERIOD");
+        P_SALE_PRICE_REDUCE = binder.getDouble("P_SALE_PRICE_REDUCE");
+        REDUCTION_MU = binder.getDouble("REDUCTION_MU");
+        REDUCTION_SIGMA = binder.getDouble("REDUCTION_SIGMA");
+        CONSUMPTION_FRACTION = binder.getDouble("CONSUMPTION_FRACTION");
+        ESSENTIAL_CONSUMPTION_FRACTION = binder.getDouble("ESSENTIAL_CONSUMPTION_FRACTION");
+        SALE_MARKUP = binder.getDouble("SALE_MARKUP");
+        SALE_WEIGHT_DAYS_ON_MARKET = binder.getDouble("SALE_WEIGHT_DAYS_ON_MARKET");
+        SALE_EPSILON = binder.getDouble("SALE_EPSILON");
+        BUY_SCALE = binder.getDouble("BUY_SCALE");
+        BUY_WEIGHT_HPA = binder.getDouble("BUY_WEIGHT_HPA");
+        BUY_EPSILON = binder.getDouble("BUY_EPSILON");
+        RENT_MARKUP = binder.getDouble("RENT_MARKUP");
+        RENT_EQ_MONTHS_ON_MARKET = binder.getDouble("RENT_EQ_MONTHS_ON_MARKET");
+        RENT_EPSILON = binder.getDouble("RENT_EPSILON");
+        RENT_MAX_AMORTIZATION_PERIOD = binder.getDouble("RENT_MAX_AMORTIZATION_PERIOD");
+        RENT_REDUCTION = binder.getDouble("RENT_REDUCTION");
+        DOWNPAYMENT_FTB_SCALE = binder.getDouble("DOWNPAYMENT_FTB_SCALE");
+        DOWNPAYMENT_FTB_SHAPE = binder.getDouble("DOWNPAYMENT_FTB_SHAPE");
+        DOWNPAYMENT_OO_SCALE = binder.getDouble("DOWNPAYMENT_OO_SCALE");
+        DOWNPAYMENT_OO_SHAPE = binder.getDouble("DOWNPAYMENT_OO_SHAPE");
+        DOWNPAYMENT_MIN_INCOME = binder.getDouble("DOWNPAYMENT_MIN_INCOME");
+        DOWNPAYMENT_BTL_MEAN = binder.getDouble("DOWNPAYMENT_BTL_MEAN");
+        DOWNPAYMENT_BTL_EPSILON = binder.getDouble("DOWNPAYMENT_BTL_EPSILON");
+        DESIRED_BANK_BALANCE_ALPHA = binder.getDouble("DESIRED_BANK_BALANCE_ALPHA");
+        DESIRED_BANK_BALANCE_BETA = binder.getDouble("DESIRED_BANK_BALANCE_BETA");
+        DESIRED_BANK_BALANCE_EPSILON = binder.getDouble("DESIRED_BANK_BALANCE_EPSILON");
+        DECISION_TO_SELL_ALPHA = binder.getDouble("DECISION_TO_SELL_ALPHA");
+        DECISION_TO_SELL_BETA = binder.getDouble("DECISION_TO_SELL_BETA");
+        DECISION_TO_SELL_HPC = binder.getDouble("DECISION_TO_SELL_HPC");
+        DECISION_TO_SELL_INTEREST = binder.getDouble("DECISION_TO_SELL_INTEREST");
+        BTL_CHOICE_INTENSITY = binder.getDouble("BTL_CHOICE_INTENSITY");
+        BTL_CHOICE_MIN_BANK_BALANCE = binder.getDouble("BTL_CHOICE_MIN_BANK_BALANCE");
+        MORTGAGE_DURATION_YEARS = binder.getInt("MORTGAGE_DURATION_YEARS");
+        BANK_INITIAL_BASE_RATE = binder.getDouble("BANK_INITIAL_BASE_RATE");
+        BANK_CREDIT_SUPPLY_TARGET = binder.getDouble("BANK_CREDIT_SUPPLY_TARGET");
+        BANK_MAX_FTB_LTV = binder.getDouble("BANK_MAX_FTB_LTV");
+        BANK_MAX_OO_LTV = binder.getDouble("BANK_MAX_OO_LTV");
+        BANK_MAX_BTL_LTV = binder.getDouble("BANK_MAX_BTL_LTV");
+        BANK_MAX_FTB_LTI = binder.getDouble("BANK_MAX_FTB_LTI");
+        BANK_MAX_OO_LTI = binder.getDouble("BANK_MAX_OO_LTI");
+        CENTRAL_BANK_MAX_FTB_LTI = binder.getDouble("CENTRAL_BANK_MAX_FTB_LTI");
+        CENTRAL_BANK_MAX_OO_LTI = binder.getDouble("CENTRAL_BANK_MAX_OO_LTI");
+        CENTRAL_BANK_FRACTION_OVER_MAX_LTI = binder.getDouble("CENTRAL_BANK_FRACTION_OVER_MAX_LTI");
+        CENTRAL_BANK_AFFORDABILITY_COEFF = binder.getDouble("CENTRAL_BANK_AFFORDABILITY_COEFF");
+        CENTRAL_BANK_BTL_STRESSED_INTEREST = binder.getDouble("CENTRAL_BANK_BTL_STRESSED_INTEREST");
+        CENTRAL_BANK_MAX_ICR = binder.getDouble("CENTRAL_BANK_MAX_ICR");
+        CONSTRUCTION_HOUSES_PER_HOUSEHOLD = binder.getDouble("CONSTRUCTION_HOUSES_PER_HOUSEHOLD");
+        GOVERNMENT_PERSONAL_ALLOWANCE_LIMIT = binder.getDouble("GOVERNMENT_PERSONAL_ALLOWANCE_LIMIT");
+        GOVERNMENT_MONTHLY_INCOME_SUPPORT = binder.getDouble("GOVERNMENT_MONTHLY_INCOME_SUPPORT");
+        UK_HOUSEHOLDS = binder.getDouble("UK_HOUSEHOLDS");
+        MORTGAGE_DIAGNOSTICS_ACTIVE = binder.getBoolean("MORTGAGE_DIAGNOSTICS_ACTIVE");
+        DATA_TAX_RATES = binder.getString("DATA_TAX_RATES");
+        DATA_NATIONAL_INSURANCE_RATES = binder.getString("DATA_NATIONAL_INSURANCE_RATES");
+        DATA_INCOME_GIVEN_AGE = binder.getString("DATA_INCOME_GIVEN_AGE");
+        DATA_AGE_MARGINAL_PDF = binder.getString("DATA_AGE_MARGINAL_PDF");
+        DATA_HOUSEHOLD_AGE_AT_BIRTH_PDF = binder.getString("DATA_HOUSEHOLD_AGE_AT_BIRTH_PDF");
+        DATA_DEATH_PROB_GIVEN_AGE = binder.getString("DATA_DEATH_PROB_GIVEN_AGE");
+        DATA_REAL_POPULATION_PER_REGION = binder.getString("DATA_REAL_POPULATION_PER_REGION");
+        // Check that all properties in the file have been bound and report all problems found, if any
+        binder.checkAllPropertiesBound();
+        // Finally, compute and set values for all derived parameters
+        derivedParams = new DerivedParams();
     }
 
     //-------------------//
@@ -248,168 +376,111 @@ public class Config {
     }
 
     /**
-     * Method to read configuration parameters from a configuration (.properties) file
-     * @param   configFileName    String with name of configuration (.properties) file (address inside source folder)
+     * Class to read typed values from a configuration (.properties) file, one property at a time, keeping track of the
+     * properties already read and collecting, instead of throwing, any problems found along the way
      */
-    private void getConfigValues(String configFileName) {
-        // Try-with-resources statement
-        try (FileReader fileReader = new FileReader(configFileName)) {
-            Properties prop = new Properties();
-            prop.load(fileReader);
-            // Check that all parameters declared in the configuration (.properties) file are also declared in this class
+    private static class PropertiesBinder {
+        private final String        configFileName;
+        private final Properties    prop = new Properties();
+        private final Set<String>   boundProperties = new HashSet<>();
+        private final List<String>  diagnostics = new ArrayList<>();
+
+        /**
+         * @param configFileName String with name of configuration (.properties) file (address inside source folder)
+         */
+        PropertiesBinder(String configFileName) {
+            this.configFileName = configFileName;
+            // Try-with-resources statement
+            try (FileReader fileReader = new FileReader(configFileName)) {
+                prop.load(fileReader);
+            } catch (IOException ioe) {
+                diagnostics.add("Could not read file: " + ioe.getMessage());
+            }
+        }
+
+        int getInt(String name) {
+            String value = getRaw(name);
+            if (value == null) return 0;
             try {
-                Set<String> setOfFields = new HashSet<>();
-                for (Field field : this.getClass().getDeclaredFields()) {
-                    setOfFields.add(field.getName());
-                }
-                for (String property: prop.stringPropertyNames()) {
-                    if (!setOfFields.contains(property)) {
-                        throw new UndeclaredPropertyException(property);
-                    }
-                }
-            } catch (UndeclaredPropertyException upe) {
-                upe.printStackTrace();
+                return Integer.parseInt(value);
+            } catch (NumberFormatException nfe) {
+                diagnostics.add("Property \"" + name + "\" could not be parsed as an int: \"" + value + "\"");
+                return 0;
             }
-            // Run through all the fields of the Class using reflection
-            for (Field field : this.getClass().getDeclaredFields()) {
-                try {
-                    // For int fields, parse the int with appropriate exception handling
-                    if (field.getType().toString().equals("int")) {
-                        try {
-                            if (prop.getProperty(field.getName()) == null) {throw new FieldNotInFileException(field);}
-                            field.set(this, Integer.parseInt(prop.getProperty(field.getName())));
-                        } catch (NumberFormatException nfe) {
-                            System.out.println("Exception " + nfe + " while trying to parse the field " +
-                                    field.getName() + " for an integer");
-                            nfe.printStackTrace();
-                        } catch (IllegalAccessException iae) {
-                            System.out.println("Exception " + iae + " while trying to set the field " +
-                                    field.getName());
-                            iae.printStackTrace();
-                        } catch (FieldNotInFileException fnife) {
-                            fnife.printStackTrace();
-                        }
-                    // For double fields, parse the double with appropriate exception handling
-                    } else if (field.getType().toString().equals("double")) {
-                        try {
-                            if (prop.getProperty(field.getName()) == null) {throw new FieldNotInFileException(field);}
-                            field.set(this, Double.parseDouble(prop.getProperty(field.getName())));
-                        } catch (NumberFormatException nfe) {
-                            System.out.println("Exception " + nfe + " while trying to parse the field " +
-                                    field.getName() + " for an double");
-                            nfe.printStackTrace();
-                        } catch (IllegalAccessException iae) {
-                            System.out.println("Exception " + iae + " while trying to set the field " +
-                                    field.getName());
-                            iae.printStackTrace();
-                        } catch (FieldNotInFileException fnife) {
-                            fnife.printStackTrace();
-                        }
-                    // For boolean fields, parse the boolean with appropriate exception handling
-                    } else if (field.getType().toString().equals("boolean")) {
-                        try {
-                            if (prop.getProperty(field.getName()) == null) {throw new FieldNotInFileException(field);}
-                            if (prop.getProperty(field.getName()).equals("true") ||
-                                    prop.getProperty(field.getName()).equals("false")) {
-                                field.set(this, Boolean.parseBoolean(prop.getProperty(field.getName())));
-                            } else {
-                                throw new BooleanFormatException("For input string \"" +
-                                        prop.getProperty(field.getName()) + "\"");
-                            }
-                        } catch (BooleanFormatException bfe) {
-                            System.out.println("Exception " + bfe + " while trying to parse the field " +
-                                    field.getName() + " for a boolean");
-                            bfe.printStackTrace();
-                        } catch (IllegalAccessException iae) {
-                            System.out.println("Exception " + iae + " while trying to set the field " +
-                                    field.getName());
-                            iae.printStackTrace();
-                        } catch (FieldNotInFileException fnife) {
-                            fnife.printStackTrace();
-                        }
-                    // For string fields, parse the string with appropriate exception handling
-                    } else if (field.getType().toString().equals("class java.lang.String")) {
-                        try {
-                            if (prop.getProperty(field.getName()) == null) {throw new FieldNotInFileException(field);}
-                            field.set(this, prop.getProperty(field.getName()).replace("\"", "").replace("\'", ""));
-                        } catch (IllegalAccessException iae) {
-                            System.out.println("Exception " + iae + " while trying to set the field " +
-                                    field.getName());
-                            iae.printStackTrace();
-                        } catch (FieldNotInFileException fnife) {
-                            fnife.printStackTrace();
-                        }
-                    // For unrecognised field types, except derivedParams and constants, throw exception
-                    } else if (!field.getName().equals("derivedParams") && !field.getName().equals("constants")) {
-                        throw new UnrecognisedFieldTypeException(field);
-                    }
-                } catch (UnrecognisedFieldTypeException ufte) {
-                    ufte.printStackTrace();
-                }
+        }
+
+        double getDouble(String name) {
+            String value = getRaw(name);
+            if (value == null) return 0.0;
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException nfe) {
+                diagnostics.add("Property \"" + name + "\" could not be parsed as a double: \"" + value + "\"");
+                return 0.0;
             }
-        } catch (IOException ioe) {
-            System.out.println("Exception " + ioe + " while trying to read file '" + configFileName + "'");
-            ioe.printStackTrace();
         }
-        // Finally, compute and set values for all derived parameters
-        setDerivedParams();
-    }
 
-    /**
-     * Method to compute and set values for all derived parameters
-     */
-    private void setDerivedParams() {
-        // Housing market parameters
-        derivedParams.HPI_RECORD_LENGTH = HPA_YEARS_TO_CHECK*constants.MONTHS_IN_YEAR + 3;  // Plus three months in a quarter
-        derivedParams.MONTHS_UNDER_OFFER = (double)DAYS_UNDER_OFFER/constants.DAYS_IN_MONTH;
-        derivedParams.T = 0.02*TARGET_POPULATION;                   // TODO: Clarify where does this 0.2 come from, and provide explanation for this formula
-        derivedParams.E = Math.exp(-1.0/derivedParams.T);           // TODO: Provide explanation for this formula
-        derivedParams.G = Math.exp(-N_QUALITY/derivedParams.T);     // TODO: Provide explanation for this formula
-        derivedParams.HPI_LOG_MEDIAN = Math.log(HPI_MEDIAN);
-        derivedParams.HPI_REFERENCE = Math.exp(derivedParams.HPI_LOG_MEDIAN + HPI_SHAPE*HPI_SHAPE/2.0);
-        // Household behaviour parameters: general
-        derivedParams.MONTHLY_P_SELL = 1.0/(HOLD_PERIOD*constants.MONTHS_IN_YEAR);
-        // Bank parameters
-        derivedParams.N_PAYMENTS = MORTGAGE_DURATION_YEARS*constants.MONTHS_IN_YEAR;
-        // House rental market parameters
-        derivedParams.K = Math.exp(-10000.0/(TARGET_POPULATION*50.0));  // TODO: Are these decay factors well-suited? Any explanation, reasoning behind the numbers chosen?
-        derivedParams.KL = Math.exp(-10000.0/(TARGET_POPULATION*50.0*200.0));   // TODO: Also, they are not reported in the paper!
-        // Collectors parameters
-        derivedParams.AFFORDABILITY_DECAY = Math.exp(-1.0/100.0);
-    }
+        boolean getBoolean(String name) {
+            String value = getRaw(name);
+            if (value == null) return false;
+            if (!value.equals("true") && !value.equals("false")) {
+                diagnostics.add("Property \"" + name + "\" could not be parsed as a boolean: \"" + value + "\"");
+            }
+            return Boolean.parseBoolean(value);
+        }
 
-    /**
-     * Equivalent to NumberFormatException for detecting problems when parsing for boolean values
-     */
-    public class BooleanFormatException extends RuntimeException {
-        BooleanFormatException(String message) { super(message); }
-    }
+        String getString(String name) {
+            String value = getRaw(name);
+            if (value == null) return null;
+            return value.replace("\"", "").replace("\'", "");
+        }
 
-    /**
-     * Exception for detecting unrecognised (not implemented) field types
-     */
-    public class UnrecognisedFieldTypeException extends Exception {
-        UnrecognisedFieldTypeException(Field field) {
-            super("Field type \"" + field.getType().toString() + "\", found at field \"" + field.getName() +
-                    "\", could not be recognised as any of the implemented types");
+        /**
+         * Mark the property as bound and return its trimmed value, or null (recording the problem) if not in the file
+         */
+        private String getRaw(String name) {
+            boundProperties.add(name);
+            String value = prop.getProperty(name);
+            if (value == null) {
+                diagnostics.add("Field \"" + name + "\" could not be found in the config.properties file");
+                return null;
+            }
+            return value.trim();
         }
-    }
 
-    /**
-     * Exception for detecting fields declared in the code but not present in the config.properties file
-     */
-    public class FieldNotInFileException extends Exception {
-        FieldNotInFileException(Field field) {
-            super("Field \"" + field.getName() + "\" could not be found in the config.properties file");
+        /**
+         * Check that all properties in the file have been bound to a field and, if any problems have been found,
+         * report all of them together
+         *
+         * @throws InvalidConfigException If any problems have been found while reading the file
+         */
+        void checkAllPropertiesBound() {
+            for (String property: new TreeSet<>(prop.stringPropertyNames())) {
+                if (!boundProperties.contains(property)) {
+                    diagnostics.add("Property \"" + property
+                            + "\" could not be found among the fields declared within the Config class");
+                }
+            }
+            if (!diagnostics.isEmpty()) throw new InvalidConfigException(configFileName, diagnostics);
         }
     }
 
     /**
-     * Exception for detecting properties present in the config.properties file but not declared in the code
+     * Exception to report, all together, the problems found while reading a configuration (.properties) file
      */
-    public class UndeclaredPropertyException extends Exception {
-        UndeclaredPropertyException(Object property) {
-            super("Property \"" + property + "\" could not be found among the fields declared within the Config class");
+    public static class InvalidConfigException extends RuntimeException {
+        InvalidConfigException(String configFileName, List<String> diagnostics) {
+            super(buildMessage(configFileName, diagnostics));
+        }
+
+        private static String buildMessage(String configFileName, List<String> diagnostics) {
+            StringBuilder message = new StringBuilder();
+            message.append(diagnostics.size()).append(" problem(s) found while reading configuration file '")
+                    .append(configFileName).append("':");
+            for (String diagnostic: diagnostics) {
+                message.append(System.lineSeparator()).append("    - ").append(diagnostic);
+            }
+            return message.toString();
         }
     }
 }
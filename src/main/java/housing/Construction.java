@@ -1,11 +1,12 @@
 package housing;
 
 import org.apache.commons.math3.random.MersenneTwister;
+import utilities.Sampling;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 
 /**************************************************************************************************
  * Class to represent the building sector in the aggregate and encapsulate its decisions
@@ -27,7 +28,7 @@ public class Construction implements IHouseOwner, Serializable {
     private Config	                    config; // Private field to receive the Model's configuration parameters object
     private MersenneTwister             rand; // Private field to receive the Model's random number generator
     private ArrayList<Region>           geography;
-    private HashSet<House>              onMarket;
+    private HashMap<Region, LinkedHashSet<House>> onMarketPerRegion; // Unsold houses of the construction sector, in the order they were built
 
     //#####################################################################################################//
     //##### HARDCODED PARAMETERS ##### TO BE MOVED TO CONFIG FILE ONCE NEW IMPLEMENTATION IS FINISHED #####//
@@ -51,7 +52,7 @@ public class Construction implements IHouseOwner, Serializable {
         this.rand = rand;
         this.geography = geography;
         nNewBuildPerRegion = new HashMap<>();
-        onMarket = new HashSet<>();
+        onMarketPerRegion = new HashMap<>();
 	}
 
     //-------------------//
@@ -60,8 +61,10 @@ public class Construction implements IHouseOwner, Serializable {
 
 	public void init() {
         housingStock = 0;
-        for (Region region: geography) nNewBuildPerRegion.put(region, 0);
-		onMarket.clear();
+        for (Region region: geography) {
+            nNewBuildPerRegion.put(region, 0);
+            onMarketPerRegion.put(region, new LinkedHashSet<>());
+        }
 	}
 
     public void step() {
@@ -79,9 +82,7 @@ public class Construction implements IHouseOwner, Serializable {
      */
     private void smartStep() {
         // Update prices of properties put on the market on previous time steps and still unsold
-        for(House h : onMarket) {
-            h.region.houseSaleMarket.updateOffer(h.getSaleRecord(), h.getSaleRecord().getPrice()*0.95);
-        }
+        repriceUnsoldHouses();
         // Find the maximum number of houses the construction sector can build this month, given available resources (minimum set to 1)
         int maxnNewBuild = Math.max(1, (int)(Model.demographics.getTotalPopulation()*BUILDING_CAPACITY_PER_HOUSEHOLD));
         // Find the number of houses the construction sector would be willing to build in each region (assuming no
@@ -101,8 +102,8 @@ public class Construction implements IHouseOwner, Serializable {
             // Build only if it is profitable!
             if (profitabilityIndex > 0.0 && supplyGap > 0) {
 //                supplyGap = (int)(5*supplyGap/(geography.get(i).households.size()*config.CONSTRUCTION_HOUSES_PER_HOUSEHOLD));
-                nHousesToBuildPerRegion[i] = nextBinomial((int)(profitabilityIndex*supplyGap + 0.5),
-                        LOCAL_AUTHORITY_POLICY[i]);
+                nHousesToBuildPerRegion[i] = Sampling.nextBinomial(rand,
+                        (int)(profitabilityIndex*supplyGap + 0.5), LOCAL_AUTHORITY_POLICY[i]);
             } else {
                 nHousesToBuildPerRegion[i] = 0;
             }
@@ -130,20 +131,24 @@ public class Construction implements IHouseOwner, Serializable {
         // Finally, for each region, build the promised houses
         for (Region region: geography) {
             House newHouse;
+            ArrayList<House> newHouses = new ArrayList<>(nNewBuildPerRegion.get(region));
+            double [] prices = new double[nNewBuildPerRegion.get(region)];
             for (int i = 0; i < nNewBuildPerRegion.get(region); i++) {
                 // ...create a new house with a random quality and with the construction sector as the owner
                 newHouse = new House(region, (int)(rand.nextDouble()*config.N_QUALITY));
                 newHouse.owner = this;
-                // ...put the house for sale in the regional house sale market at the reference price for that quality
-                region.houseSaleMarket.offer(newHouse,
-                        region.regionalHousingMarketStats.getExpAvSalePriceForQuality(newHouse.getQuality()));
-//                        region.regionalHousingMarketStats.getReferencePriceForQuality(newHouse.getQuality()));
-                // ...add the house to the portfolio of construction sector properties
-                onMarket.add(newHouse);
+                // ...set its sale price at the reference price for that quality
+                prices[i] = region.regionalHousingMarketStats.getExpAvSalePriceForQuality(newHouse.getQuality());
+//                prices[i] = region.regionalHousingMarketStats.getReferencePriceForQuality(newHouse.getQuality());
+                newHouses.add(newHouse);
                 // ...and finally increase both regional and general housing stocks
                 region.increaseHousingStock();
                 ++housingStock;
             }
+            // ...put all new houses for sale in the regional house sale market at once
+            region.houseSaleMarket.offerAll(newHouses, prices);
+            // ...and add them to the portfolio of construction sector properties
+            onMarketPerRegion.get(region).addAll(newHouses);
         }
     }
 
@@ -155,9 +160,7 @@ public class Construction implements IHouseOwner, Serializable {
 	    // Initialise to zero the number of houses built this month
 	    nNewBuild = 0;
         // First update prices of properties put on the market on previous time steps and still unsold
-        for (House h : onMarket) {
-            h.region.houseSaleMarket.updateOffer(h.getSaleRecord(), h.getSaleRecord().getPrice()*0.95);
-        }
+        repriceUnsoldHouses();
 	    // Then, for each region...
         for (Region region: geography) {
             // ...compute target housing stock dependent on current and target population for the region
@@ -180,25 +183,39 @@ public class Construction implements IHouseOwner, Serializable {
             }
             // ...and while there is any shortfall...
             House newHouse;
+            ArrayList<House> newHouses = new ArrayList<>(Math.max(0, shortFall));
+            double [] prices = new double[Math.max(0, shortFall)];
             while (shortFall > 0) {
                 // ...create a new house with a random quality and with the construction sector as the owner
                 newHouse = new House(region, (int)(rand.nextDouble()*config.N_QUALITY));
                 newHouse.owner = this;
-                // ...put the house for sale in the regional house sale market at the reference price for that quality
-                region.houseSaleMarket.offer(newHouse,
-                        region.regionalHousingMarketStats.getReferencePriceForQuality(newHouse.getQuality()));
-                // ...add the house to the portfolio of construction sector properties
-                onMarket.add(newHouse);
+                // ...set its sale price at the reference price for that quality
+                prices[newHouses.size()] =
+                        region.regionalHousingMarketStats.getReferencePriceForQuality(newHouse.getQuality());
+                newHouses.add(newHouse);
                 // ...and finally increase both regional and general housing stocks, and decrease shortfall
                 region.increaseHousingStock();
                 ++housingStock;
                 --shortFall;
             }
+            // ...put all new houses for sale in the regional house sale market at once, as a single batch, since
+            // initialisation builds the whole housing stock in a single time step
+            region.houseSaleMarket.offerAll(newHouses, prices);
+            // ...and add them to the portfolio of construction sector properties
+            onMarketPerRegion.get(region).addAll(newHouses);
         }
 	}
 
+    /**
+     * Cut by 5% the list-prices of all properties put on the market on previous time steps and still unsold, region by
+     * region, with a single bulk update of the price-quality queue of each regional house sale market
+     */
+    private void repriceUnsoldHouses() {
+        for (Region region: geography) region.houseSaleMarket.repriceOffers(onMarketPerRegion.get(region), 0.95);
+    }
+
 	@Override
-	public void completeHouseSale(HouseSaleRecord sale) { onMarket.remove(sale.house); }
+	public void completeHouseSale(HouseSaleRecord sale) { onMarketPerRegion.get(sale.house.region).remove(sale.house); }
 
 	@Override
 	public void endOfLettingAgreement(House h, PaymentAgreement p) {
@@ -219,15 +236,4 @@ public class Construction implements IHouseOwner, Serializable {
     public int getnNewBuildForRegion(Region region) { return nNewBuildPerRegion.get(region); }
 
     public int getnNewBuild() { return nNewBuild; }
-
-    //##### Binomial random numbers... #####// Todo: Replace with a proper implementation of this!
-    private int nextBinomial(int trials, double probability) {
-        int x = 0;
-        for (int i = 0; i < trials; i++) {
-            if (Math.random() < probability) {
-                x++;
-            }
-        }
-        return x;
-    }
 }
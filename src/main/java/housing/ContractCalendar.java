@@ -0,0 +1,102 @@
+package housing;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**************************************************************************************************
+ * Timing wheel holding the rental and mortgage agreements of the households of a region, keyed by
+ * the time step at which each of them comes due: the step of its last payment for a tenancy, when
+ * the tenant has to move out, and the step after its last payment for a mortgage, when any
+ * remaining principal is paid off and the contract is closed. Agreements are kept in a circular
+ * array of buckets, one per time step, with as many buckets as needed for the longest delay
+ * scheduled so far, so that scheduling an agreement and finding those due at a given time step
+ * only take constant time per agreement, and no agreement is visited before it comes due.
+ *
+ * Agreements ended early (by a sale, an eviction, a purchase or a death) are not removed, but
+ * simply come due as scheduled, and households ignore them when they are no longer their own.
+ *
+ *************************************************************************************************/
+public class ContractCalendar implements Serializable {
+    private static final long serialVersionUID = 5720458936130842971L;
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private ArrayList<ArrayList<PaymentAgreement>>  buckets; // Agreements due at each time step, modulo the number of buckets
+    private ArrayList<PaymentAgreement>             due; // Reusable list of agreements due at the current time step
+    private int                                     currentTime; // Last time step for which due agreements were retrieved
+
+    //------------------------//
+    //----- Constructors -----//
+    //------------------------//
+
+    ContractCalendar() {
+        buckets = new ArrayList<>();
+        due = new ArrayList<>();
+        init();
+    }
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    /**
+     * Remove all agreements, and set the calendar back to before the first time step
+     */
+    void init() {
+        buckets.clear();
+        for (int i = 0; i < 16; i++) buckets.add(new ArrayList<>());
+        due.clear();
+        currentTime = -1;
+    }
+
+    /**
+     * Schedule an agreement to come due at a given time step, or at the next time step if that one has already passed
+     *
+     * @param agreement Rental or mortgage agreement
+     * @param dueTime Time step at which the agreement comes due
+     */
+    void schedule(PaymentAgreement agreement, int dueTime) {
+        dueTime = Math.max(dueTime, currentTime + 1);
+        if (dueTime - currentTime >= buckets.size()) grow(dueTime - currentTime + 1);
+        bucketFor(dueTime).add(agreement);
+    }
+
+    /**
+     * Retrieve, and remove from the calendar, all agreements due at a given time step, which must be later than the
+     * last time step for which due agreements were retrieved
+     *
+     * @param time Current time step
+     * @return List of agreements due, in order of scheduling, valid until the next call to this method
+     */
+    ArrayList<PaymentAgreement> advance(int time) {
+        due.clear();
+        // Time steps skipped, if any, have their agreements moved to the current one
+        for (int t = Math.max(currentTime + 1, time - buckets.size() + 1); t <= time; t++) {
+            ArrayList<PaymentAgreement> bucket = bucketFor(t);
+            due.addAll(bucket);
+            bucket.clear();
+        }
+        currentTime = time;
+        return due;
+    }
+
+    private ArrayList<PaymentAgreement> bucketFor(int time) { return buckets.get(time & (buckets.size() - 1)); }
+
+    /**
+     * Increase the number of buckets to the next power of two at least equal to the given one, moving each agreement to
+     * the bucket for its due time
+     */
+    private void grow(int minBuckets) {
+        int nBuckets = buckets.size();
+        while (nBuckets < minBuckets) nBuckets <<= 1;
+        ArrayList<ArrayList<PaymentAgreement>> oldBuckets = buckets;
+        buckets = new ArrayList<>(nBuckets);
+        for (int i = 0; i < nBuckets; i++) buckets.add(new ArrayList<>());
+        // Old buckets hold the time steps from currentTime + 1 onwards, in circular order
+        for (int t = currentTime + 1; t <= currentTime + oldBuckets.size(); t++) {
+            bucketFor(t).addAll(oldBuckets.get(t & (oldBuckets.size() - 1)));
+        }
+    }
+}
@@ -5,6 +5,8 @@ import java.util.Iterator;
 
 import org.apache.commons.math3.random.MersenneTwister;
 
+import collectors.FlightRecorderEvents;
+
 public class Demographics {
 
 	//------------------//
@@ -47,6 +49,13 @@ public class Demographics {
 	 * Add newly 'born' households to the model and remove households that 'die'
 	 */
 	public void step() {
+        FlightRecorderEvents.DemographicsStep event = null;
+        if (FlightRecorderEvents.AVAILABLE) {
+            event = new FlightRecorderEvents.DemographicsStep();
+            event.begin();
+        }
+        int totalBirths = 0;
+        int totalDeaths = 0;
 	    // For each region...
         for (Region region: geography) {
             // Birth: Add households in proportion to target population and monthly birth rate of first-time-buyers
@@ -59,6 +68,7 @@ public class Demographics {
                                                     data.Demographics.pdfHouseholdAgeAtBirth.nextDouble(rand),
                                                     region));
                 totalPopulation++;
+                totalBirths++;
             }
             // Death: Kill households with a probability dependent on their age and organise inheritance
             double pDeath;
@@ -72,12 +82,18 @@ public class Demographics {
                 if(rand.nextDouble() < pDeath*multFactor) {
                     iterator.remove();
                     totalPopulation--;
+                    totalDeaths++;
                     // Inheritance
                     // TODO: This imposes inheritance within the same region!!!
                     h.transferAllWealthTo(region.households.get(rand.nextInt(region.households.size())));
                 }
             }
         }
+        if (event != null && event.shouldCommit()) {
+            event.births = totalBirths;
+            event.deaths = totalDeaths;
+            event.commit();
+        }
 	}
 
     //----- Getter/setter methods -----//
@@ -13,12 +13,22 @@ public class Government {
     //------------------//
 
     private Config      config; // Private field to receive the Model's configuration parameters object
+    private double []   taxBands; // Upper limits of the income tax bands
+    private double []   taxRates; // Income tax rates for each band
+    private double []   nicBands; // Upper limits of the national insurance bands
+    private double []   nicRates; // National insurance rates for each band
 
     //------------------------//
     //----- Constructors -----//
     //------------------------//
 
-    public Government(Config config) { this.config = config; }
+    public Government(Config config) {
+        this.config = config;
+        taxBands = data.Government.tax.bands;
+        taxRates = data.Government.tax.rates;
+        nicBands = data.Government.nationalInsurance.bands;
+        nicRates = data.Government.nationalInsurance.rates;
+    }
 
     //-------------------//
     //----- Methods -----//
@@ -32,13 +42,13 @@ public class Government {
 	 * @return The annual income tax due in pounds.
 	 */
 	double incomeTaxDue(double grossIncome) {
-		double tax = bandedPercentage(grossIncome, data.Government.tax.bands, data.Government.tax.rates);
+		double tax = bandedPercentage(grossIncome, taxBands, taxRates);
 		if(grossIncome > config.GOVERNMENT_PERSONAL_ALLOWANCE_LIMIT) {
 			//double personalAllowance = Math.max((grossIncome - config.GOVERNMENT_PERSONAL_ALLOWANCE_LIMIT)/2.0,0.0);
 			double personalAllowance = Math.max(
-					data.Government.tax.bands[0]-(grossIncome-config.GOVERNMENT_PERSONAL_ALLOWANCE_LIMIT)/2.0,
+					taxBands[0]-(grossIncome-config.GOVERNMENT_PERSONAL_ALLOWANCE_LIMIT)/2.0,
 					0.0);
-			tax += (data.Government.tax.bands[0]-personalAllowance)*data.Government.tax.rates[0]; // TODO: what does this do?
+			tax += (taxBands[0]-personalAllowance)*taxRates[0]; // TODO: what does this do?
 		}
 		return tax;
 	}
@@ -49,12 +59,34 @@ public class Government {
 	 * @param grossIncome Gross annual income in pounds
 	 * @return Annual class 1 NICs due.
 	 */
-	double class1NICsDue(double grossIncome) {
-		return bandedPercentage(grossIncome,
-                                data.Government.nationalInsurance.bands,
-                                data.Government.nationalInsurance.rates);
-	}
-	
+	double class1NICsDue(double grossIncome) { return bandedPercentage(grossIncome, nicBands, nicRates); }
+
+    /**
+     * Calculate the monthly aliquot part of the income tax and class 1 National Insurance Contributions due on a given
+     * gross annual employment income.
+     *
+     * @param grossIncome Gross annual employment income in pounds
+     * @return Monthly income tax plus class 1 NICs due
+     */
+    double monthlyEmploymentTaxesDue(double grossIncome) {
+        return (incomeTaxDue(grossIncome) + class1NICsDue(grossIncome))/config.constants.MONTHS_IN_YEAR;
+    }
+
+    /**
+     * Batch version of monthlyEmploymentTaxesDue, computing in a single pass the monthly income tax plus class 1 NICs
+     * due on a whole column of gross annual employment incomes, such as those of all the households in a region.
+     *
+     * @param grossIncomes Gross annual employment incomes in pounds
+     * @param monthlyTaxesDue Array where to write the monthly income tax plus class 1 NICs due for each income
+     * @param from First element to compute (inclusive)
+     * @param to Last element to compute (exclusive)
+     */
+    void monthlyEmploymentTaxesDue(double [] grossIncomes, double [] monthlyTaxesDue, int from, int to) {
+        for (int i = from; i < to; i++) {
+            monthlyTaxesDue[i] = monthlyEmploymentTaxesDue(grossIncomes[i]);
+        }
+    }
+
 	/**
 	 * Calculate a "banded percentage" on a value. A "banded percentage" is a way of calculating a non-linear function,
      * f(x), widely used by HMRC. The domain of values of f(x) is split into bands: from 0 to x1, from x1 to x2 etc.
@@ -66,7 +98,7 @@ public class Government {
 	 * @param rates an array holding the percentage applicable to each band
 	 * @return The banded percentage of 'taxableIncome'
 	 */
-	private double bandedPercentage(double taxableIncome, Double [] bands, Double [] rates) {
+	private double bandedPercentage(double taxableIncome, double [] bands, double [] rates) {
 		int i = 0;
 		double lastRate = 0.0;
 		double tax = 0.0;
@@ -2,6 +2,8 @@ package housing;
 
 import org.apache.commons.math3.random.MersenneTwister;
 
+import java.util.List;
+
 /**************************************************************************************************
  * Class to represent the rental market
  *
@@ -49,9 +51,19 @@ public class HouseRentalMarket extends HousingMarket {
 		return(hsr);
 	}
 	
+	@Override
+	public List<HouseSaleRecord> offerAll(List<House> houses, double [] prices) {
+		for (House house: houses) {
+			if (house.isOnMarket()) System.out.println("Got offer on rental market of house already on sale market");
+		}
+		List<HouseSaleRecord> newOffers = super.offerAll(houses, prices);
+		for (HouseSaleRecord hsr: newOffers) hsr.house.putForRent(hsr);
+		return newOffers;
+	}
+
 	@Override
 	public void removeOffer(HouseSaleRecord hsr) {
-		super.removeOffer(hsr);
 		hsr.house.resetRentalRecord();
+		super.removeOffer(hsr); // Last, as the record may then be reused
 	}
 }
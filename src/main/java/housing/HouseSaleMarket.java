@@ -1,9 +1,10 @@
 package housing;
 
-import java.util.Iterator;
-
 import org.apache.commons.math3.random.MersenneTwister;
-import utilities.PriorityQueue2D;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /*******************************************************
  * Class that represents market for houses for-sale.
@@ -16,13 +17,13 @@ public class HouseSaleMarket extends HousingMarket {
 
 	private Config	                    			config; // Private field to receive the Model's configuration parameters object
 	private Region                                  region;
-    private PriorityQueue2D<HousingMarketRecord>    offersPY;
+    private PriceYieldIndex                         offersPY; // Price-yield index of offers, rebuilt once per time step
 
 	HouseSaleMarket(Config config, MersenneTwister rand, Region region) {
 	    super(config, rand, region);
 	    this.config = config;
 	    this.region = region;
-		offersPY = new PriorityQueue2D<>(new HousingMarketRecord.PYComparator());
+		offersPY = new PriceYieldIndex();
 	}
 	
 	@Override
@@ -49,65 +50,79 @@ public class HouseSaleMarket extends HousingMarket {
 	@Override
 	public HouseSaleRecord offer(House house, double price) {
 		HouseSaleRecord hsr = super.offer(house, price);
-		offersPY.add(hsr);
 		house.putForSale(hsr);
 		return(hsr);
 	}
 	
+    /**
+     * Change by a common factor the list-prices of several houses already on the market. Since all prices are scaled by
+     * the same factor, the relative order among these offers does not change, so that the price-quality queue can be
+     * updated for all of them in a single merge of the rescaled offers with the rest (see scaleOfferPrices), while the
+     * quality-band and price-yield indices are rebuilt in a single pass right before the market is cleared anyway
+     *
+     * @param houses Houses on the market whose list-prices are to be changed
+     * @param factor Factor by which to multiply their list-prices
+     */
+    public void repriceOffers(Collection<House> houses, double factor) {
+        ArrayList<HouseSaleRecord> offers = new ArrayList<>(houses.size());
+        for (House h: houses) offers.add(h.getSaleRecord());
+        scaleOfferPrices(offers, factor);
+    }
+
 	@Override
-	public void removeOffer(HouseSaleRecord hsr) {
-		super.removeOffer(hsr);
-		offersPY.remove(hsr);
-		hsr.house.resetSaleRecord();
+	public List<HouseSaleRecord> offerAll(List<House> houses, double [] prices) {
+		List<HouseSaleRecord> newOffers = super.offerAll(houses, prices);
+		for (HouseSaleRecord hsr: newOffers) hsr.house.putForSale(hsr);
+		return newOffers;
 	}
-	
+
 	@Override
-	public void updateOffer(HouseSaleRecord hsr, double newPrice) {
+	public void removeOffer(HouseSaleRecord hsr) {
 		offersPY.remove(hsr);
-		super.updateOffer(hsr, newPrice);
-		offersPY.add(hsr);
+		hsr.house.resetSaleRecord();
+		super.removeOffer(hsr); // Last, as the record may then be reused
 	}
 
     /**
-     * This method overrides the main simulation step in order to sort the price-yield priorities.
+     * This method overrides the sorting of priorities in order to sort also the price-yield priorities. Note that new
+     * offers, price updates and removals outside market clearing are not applied to the price-yield index as they
+     * happen, but are all batched into a single rebuild of the index here, right before the market is cleared.
      */
     @Override
-    void clearMarket() {
-        // Before any use, priorities must be sorted by filling in the uncoveredElements TreeSet at the corresponding
-        // PriorityQueue2D. In particular, we sort here the price-yield priorities
-        offersPY.sortPriorities();
-        // Then continue with the normal HousingMarket clearMarket mechanism
-        super.clearMarket();
+    void sortPriorities() {
+        // Rebuild the quality-band index as in the normal HousingMarket mechanism...
+        super.sortPriorities();
+        // ...and then rebuild here the price-yield index from the price-ordered offers
+        offersPY.rebuild(getOffersPQ(), getnHousesOnMarket());
     }
 
 	@Override
-	protected HouseSaleRecord getBestOffer(HouseBuyerRecord bid) {
-		if(bid.getClass() == BTLBuyerRecord.class) { // BTL buyer (yield driven)
-			HouseSaleRecord bestOffer = (HouseSaleRecord)offersPY.peek(bid);
+	protected HouseSaleRecord getBestOffer(double price, Household buyer, boolean isBTL) {
+		if(isBTL) { // BTL buyer (yield driven)
+			HouseSaleRecord bestOffer = offersPY.peek(price);
 			if(bestOffer != null) {
 					double minDownpayment = bestOffer.getPrice()*(1.0
                             - region.regionalRentalMarketStats.getExpAvFlowYield()/
                             (Model.centralBank.getInterestCoverRatioLimit(false)*config.CENTRAL_BANK_BTL_STRESSED_INTEREST));
-					if(bid.buyer.getBankBalance() >= minDownpayment) {
+					if(buyer.getBankBalance() >= minDownpayment) {
 						return(bestOffer);
 					}
 			}
 			return(null);
 		} else { // must be OO buyer (quality driven)
-			return super.getBestOffer(bid);
+			return super.getBestOffer(price, buyer, isBTL);
 		}
 	}
 
     /**
      * Overrides corresponding method at HousingMarket in order to remove successfully matched and cleared offers from
-     * the offersPY queue
+     * the price-yield index
      *
-     * @param record Iterator over the HousingMarketRecord objects contained in offersPQ
      * @param offer Offer to remove from queues
      */
 	@Override
-    void removeOfferFromQueues(Iterator<HousingMarketRecord> record, HouseSaleRecord offer) {
-        record.remove();
+    void removeOfferFromQueues(HouseSaleRecord offer) {
+        super.removeOfferFromQueues(offer);
         offersPY.remove(offer);
     }
 
@@ -118,5 +133,5 @@ public class HouseSaleMarket extends HousingMarket {
 	 * @param buyer The household that is making the bid.
 	 * @param maxPrice The maximum price that the household is willing to pay.
 	 ******************************************/
-	void BTLbid(Household buyer, double maxPrice) { bids.add(new BTLBuyerRecord(buyer, maxPrice)); }
+	void BTLbid(Household buyer, double maxPrice) { bids.add(buyer, maxPrice, true); }
 }
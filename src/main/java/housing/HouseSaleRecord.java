@@ -1,7 +1,5 @@
 package housing;
 
-import java.util.ArrayList;
-
 /**************************************************************************************************
  * Class to encapsulate information on a house that is for sale. It can be though of as the record
  * a estate agent would keep about each of the properties managed
@@ -18,10 +16,12 @@ public class HouseSaleRecord extends HousingMarketRecord {
 
     private Region                  region;
     public House                    house;
-    ArrayList<HouseBuyerRecord>     matchedBids;
+    int                             firstMatchedBid; // Position of the first bid matched to this offer in the market's arena of matched bids
+    int                             nMatchedBids; // Number of bids matched to this offer in the current clearing round
     public double                   initialListedPrice;
     public int                      tInitialListing; // Time of initial listing
     private double                  houseSpecificYield;
+    private int                     tYieldComputed; // Time step at which houseSpecificYield was last computed, -1 if never
 
     //------------------------//
     //----- Constructors -----//
@@ -35,25 +35,42 @@ public class HouseSaleRecord extends HousingMarketRecord {
 	 */
 	public HouseSaleRecord(Region region, House h, double price) {
 		super(price);
-        this.region = region;
-		house = h;
-		initialListedPrice = price;
-		tInitialListing = Model.getTime();
-		matchedBids = new ArrayList<>(8); // TODO: Check if this initial size of 8 is good enough or can be improved
-        recalculateHouseSpecificYield(price);
+        init(region, h, price);
 	}
 
     //-------------------//
     //----- Methods -----//
     //-------------------//
 
+    private void init(Region region, House h, double price) {
+        this.region = region;
+        house = h;
+        initialListedPrice = price;
+        tInitialListing = Model.getTime();
+        firstMatchedBid = 0;
+        nMatchedBids = 0;
+        tYieldComputed = -1;
+    }
+
+    /**
+     * Reuse this record, once taken off the market, for a new offer, as if newly constructed
+     *
+     * @param h The house that is for sale
+     * @param price The initial list price for the house
+     */
+    void reset(Region region, House h, double price) {
+        super.reset(price);
+        init(region, h, price);
+    }
+
     /**
      * Expected gross rental yield for this particular property, obtained by multiplying the average flow gross rental
      * yield for houses of this quality in this particular region by the average sale price for houses of this quality
      * in this region and dividing by the actual listed price of this property
      */
-    private void recalculateHouseSpecificYield(double price) {
+    private void recalculateHouseSpecificYield() {
         int q = house.getQuality();
+        double price = getPrice();
         if (price > 0) {
             houseSpecificYield = region.regionalRentalMarketStats.getAvFlowYieldForQuality(q)
                     *region.regionalHousingMarketStats.getExpAvSalePriceForQuality(q)
@@ -62,11 +79,12 @@ public class HouseSaleRecord extends HousingMarketRecord {
     }
 
     /**
-     * Record the match of the offer of this property with a bid
+     * Count the match of the offer of this property with a bid, the bid itself being kept by the market
      *
-     * @param bid The bid being matched to the offer
+     * @return True if this is the first bid matched to the offer in the current clearing round, so that the market can
+     * register the offer as one to be cleared
      */
-    void matchWith(HouseBuyerRecord bid) { matchedBids.add(bid); }
+    boolean matchWithBid() { return nMatchedBids++ == 0; }
 
     //----- Getter/setter methods -----//
 
@@ -78,10 +96,18 @@ public class HouseSaleRecord extends HousingMarketRecord {
 	
 	/**
 	 * Expected gross yield for this particular house, based on the current average flow yield and the actual listed
-     * price for the house, and taking into account both the quality and the expected occupancy levels
+     * price for the house, and taking into account both the quality and the expected occupancy levels. The yield is
+     * only computed when needed (in practice, when the price-yield index is rebuilt for clearing the market) and at
+     * most once per time step and price, always with the regional statistics of the time step when it is requested
 	 */
 	@Override
-	public double getYield() { return houseSpecificYield; }
+	public double getYield() {
+        if (tYieldComputed != Model.getTime()) {
+            recalculateHouseSpecificYield();
+            tYieldComputed = Model.getTime();
+        }
+        return houseSpecificYield;
+    }
 
     /**
      * Set the listed price for this property
@@ -91,6 +117,6 @@ public class HouseSaleRecord extends HousingMarketRecord {
      */
 	public void setPrice(double newPrice, HousingMarket.Authority auth) {
 		super.setPrice(newPrice, auth);
-        recalculateHouseSpecificYield(newPrice);
+        tYieldComputed = -1; // The yield will be recomputed with the new price when next requested
 	}
 }
@@ -39,9 +39,16 @@ public class Household implements IHouseOwner, Serializable {
     private double                          bankBalance;
     private double                          annualGrossEmploymentIncome;
     private double                          monthlyGrossEmploymentIncome;
+    private double                          monthlyEmploymentTaxes; // Income tax and NICs due monthly on current employment income
     private double                          monthlyGrossRentalIncome; // Keeps track of monthly rental income, as only tenants keep a reference to the rental contract, not landlords
     private boolean                         isFirstTimeBuyer;
     private boolean                         isBankrupt;
+    private int                             lastFinancialUpdateTime; // Time step of the last monthly financial update
+    private double                          monthlyHousingPayments; // Rent and mortgage payments due next month, unless housingPaymentsChanged
+    private boolean                         housingPaymentsChanged; // True if rental or mortgage agreements have changed, or come due, since the last financial update
+    private RentalAgreement                 dueTenancy; // Rental agreement come due this month, if any
+
+    Bank.AffordabilityCache                 affordabilityCache = new Bank.AffordabilityCache(); // Maximum mortgages memoised by the bank for this household
 
     //------------------------//
     //----- Constructors -----//
@@ -58,13 +65,15 @@ public class Household implements IHouseOwner, Serializable {
         home = null;
         isFirstTimeBuyer = true;
         isBankrupt = false;
+        lastFinancialUpdateTime = Model.t - 1;
+        monthlyHousingPayments = 0.0;
+        housingPaymentsChanged = false;
         id = ++id_pool;
         age = householdAgeAtBirth;
         incomePercentile = this.rand.nextDouble();
         behaviour = new HouseholdBehaviour(this.config, this.rand, incomePercentile);
         // Find initial values for the annual and monthly gross employment income
-        annualGrossEmploymentIncome = data.EmploymentIncome.getAnnualGrossEmploymentIncome(age, incomePercentile);
-        monthlyGrossEmploymentIncome = annualGrossEmploymentIncome/config.constants.MONTHS_IN_YEAR;
+        updateEmploymentIncome();
         bankBalance = behaviour.getDesiredBankBalance(getAnnualGrossTotalIncome()); // Desired bank balance is used as initial value for actual bank balance
         monthlyGrossRentalIncome = 0.0;
     }
@@ -76,28 +85,20 @@ public class Household implements IHouseOwner, Serializable {
     //----- General methods -----//
 
     /**
-     * Main simulation step for each household. They age, receive employment and other forms of income, make their rent
-     * or mortgage payments, perform an essential consumption, make non-essential consumption decisions, manage their
-     * owned properties, and make their housing decisions depending on their current housing state:
+     * Main simulation step for each household, run once the finances of all households in the region have been updated
+     * for the month by HouseholdFinances (ageing, employment and other forms of income, rent or mortgage payments,
+     * essential and non-essential consumption, and bankruptcies). Households manage their owned properties, and make
+     * their housing decisions depending on their current housing state:
      * - Buy or rent if in social housing
-     * - Sell house if owner-occupier
+     * - Sell house if owner-occupier, only in those months when due to consider it
      * - Buy/sell/rent out properties if BTL investor
      */
     public void step() {
-        isBankrupt = false; // Delete bankruptcies from previous time step
-        age += 1.0/config.constants.MONTHS_IN_YEAR;
-        // Update annual and monthly gross employment income
-        annualGrossEmploymentIncome = data.EmploymentIncome.getAnnualGrossEmploymentIncome(age, incomePercentile);
-        monthlyGrossEmploymentIncome = annualGrossEmploymentIncome/config.constants.MONTHS_IN_YEAR;
-        // Add monthly disposable income (net total income minus essential consumption and housing expenses) to bank balance
-        bankBalance += getMonthlyDisposableIncome();
-        // Consume based on monthly disposable income (after essential consumption and house payments have been subtracted)
-        bankBalance -= behaviour.getDesiredConsumption(getBankBalance(), getAnnualGrossTotalIncome()); // Old implementation: if(isFirstTimeBuyer() || !isInSocialHousing()) bankBalance -= behaviour.getDesiredConsumption(getBankBalance(), getAnnualGrossTotalIncome());
-        // Deal with bankruptcies
-        // TODO: Improve bankruptcy procedures (currently, simple cash injection), such as terminating contracts!
-        if (bankBalance < 0.0) {
-            bankBalance = 1.0;
-            isBankrupt = true;
+        // Owner-occupiers (not investors) owning only their home, not on the market, have no decision to make until due
+        // to consider selling it
+        if (isHomeowner() && !behaviour.isPropertyInvestor() && housePayments.size() == 1 && !home.isOnMarket()
+                && !behaviour.isDueToConsiderSellingHome(home.region)) {
+            return;
         }
         // Manage all owned properties
         for (House h: housePayments.keySet()) {
@@ -110,10 +111,10 @@ public class Household implements IHouseOwner, Serializable {
         if (isInSocialHousing()) {
             bidForAHome(region); // When BTL households are born, they enter here the first time!
         } else if (isRenting()) {
-            if (housePayments.get(home).nPayments == 0) { // End of rental period for this tenant
+            if (dueTenancy != null && housePayments.get(home) == dueTenancy) { // End of rental period for this tenant
                 endTenancy();
                 bidForAHome(region);
-            }            
+            }
         } else if (behaviour.isPropertyInvestor()) {
             // TODO: This needs to be broken up in two "decisions" (methods), one for quickly disqualifying investors
             // TODO: who can't afford investing, and another one that, running through the regions, decides whether to
@@ -127,20 +128,68 @@ public class Household implements IHouseOwner, Serializable {
     }
 
     /**
-     * Subtracts the essential, necessary consumption and housing expenses (mortgage and rental payments) from the net
-     * total income (employment income, property income, financial returns minus taxes)
+     * Updates annual and monthly gross employment income for the current age of the household, together with the
+     * monthly taxes due on it. This is only needed at birth, since afterwards both are updated once per step by
+     * HouseholdFinances, and then reused by every call to getMonthlyNetTotalIncome within the step (including the
+     * bank's affordability checks)
      */
-    private double getMonthlyDisposableIncome() {
-        // Start with net monthly income
-        double monthlyDisposableIncome = getMonthlyNetTotalIncome();
-        // Subtract essential, necessary consumption
-        // TODO: ESSENTIAL_CONSUMPTION_FRACTION is not explained in the paper, all support is said to be consumed
-        monthlyDisposableIncome -= config.ESSENTIAL_CONSUMPTION_FRACTION*config.GOVERNMENT_MONTHLY_INCOME_SUPPORT;
-        // Subtract housing consumption
+    private void updateEmploymentIncome() {
+        annualGrossEmploymentIncome = data.EmploymentIncome.getAnnualGrossEmploymentIncome(age, incomePercentile);
+        monthlyGrossEmploymentIncome = annualGrossEmploymentIncome/config.constants.MONTHS_IN_YEAR;
+        monthlyEmploymentTaxes = Model.government.monthlyEmploymentTaxesDue(annualGrossEmploymentIncome);
+    }
+
+    /**
+     * First part of the monthly financial update, run by HouseholdFinances for each household in turn: the household
+     * ages, bankruptcies from the previous time step are deleted, and rent and mortgage payments are made. Unless any
+     * rental or mortgage agreement has changed or come due since the last update, payments are the same as then, and
+     * they are simply read from memory instead of being added up again over all agreements
+     *
+     * @return Total housing expenses (mortgage and rental payments) for this month
+     */
+    double beginFinancialUpdate() {
+        isBankrupt = false; // Delete bankruptcies from previous time step
+        age += 1.0/config.constants.MONTHS_IN_YEAR;
+        lastFinancialUpdateTime = Model.t;
+        if (!housingPaymentsChanged) return monthlyHousingPayments;
+        double housingPayments = 0.0;
+        monthlyHousingPayments = 0.0;
         for(PaymentAgreement payment: housePayments.values()) {
-            monthlyDisposableIncome -= payment.makeMonthlyPayment();
+            housingPayments += payment.makeMonthlyPayment();
+            monthlyHousingPayments += payment.nextPayment();
         }
-        return monthlyDisposableIncome;
+        housingPaymentsChanged = false;
+        return housingPayments;
+    }
+
+    /**
+     * Receive notice from the region's ContractCalendar of a rental or mortgage agreement of this household coming due,
+     * so that a tenancy ends at this month's step, or a mortgage is closed at this month's financial update
+     *
+     * @param agreement Agreement come due, which might no longer be held by the household
+     */
+    void contractDue(PaymentAgreement agreement) {
+        if (agreement instanceof RentalAgreement) {
+            dueTenancy = (RentalAgreement)agreement;
+        } else {
+            housingPaymentsChanged = true;
+        }
+    }
+
+    /**
+     * Last part of the monthly financial update, writing back the results computed by HouseholdFinances. The bank
+     * balance already includes the disposable income (net total income minus essential consumption and housing
+     * expenses) and the non-essential consumption, and is reset to a small positive amount for bankrupt households
+     * TODO: Improve bankruptcy procedures (currently, simple cash injection), such as terminating contracts!
+     * TODO: ESSENTIAL_CONSUMPTION_FRACTION is not explained in the paper, all support is said to be consumed
+     */
+    void completeFinancialUpdate(double annualGrossEmploymentIncome, double monthlyEmploymentTaxes, double bankBalance,
+                                 boolean isBankrupt) {
+        this.annualGrossEmploymentIncome = annualGrossEmploymentIncome;
+        monthlyGrossEmploymentIncome = annualGrossEmploymentIncome/config.constants.MONTHS_IN_YEAR;
+        this.monthlyEmploymentTaxes = monthlyEmploymentTaxes;
+        this.bankBalance = bankBalance;
+        this.isBankrupt = isBankrupt;
     }
 
     /**
@@ -148,10 +197,7 @@ public class Household implements IHouseOwner, Serializable {
      * tax on employment income and national insurance contributions are implemented!
      */
     double getMonthlyNetTotalIncome() {
-        return getMonthlyGrossTotalIncome()
-                - (Model.government.incomeTaxDue(annualGrossEmploymentIncome)   // Employment income tax
-                + Model.government.class1NICsDue(annualGrossEmploymentIncome))  // National insurance contributions
-                /config.constants.MONTHS_IN_YEAR;
+        return getMonthlyGrossTotalIncome() - monthlyEmploymentTaxes; // Employment income tax and national insurance
     }
 
     /**
@@ -182,10 +228,11 @@ public class Household implements IHouseOwner, Serializable {
         forSale = house.getSaleRecord();
         if(forSale != null) { // reprice house for sale
             newPrice = behaviour.rethinkHouseSalePrice(forSale);
-            if(newPrice > mortgageFor(house).principal) {
+            if(newPrice > mortgageFor(house).getPrincipal()) {
                 house.region.houseSaleMarket.updateOffer(forSale, newPrice);
             } else {
                 house.region.houseSaleMarket.removeOffer(forSale);
+                if(house == home) behaviour.scheduleHomeSaleDecision(house.region);
                 // TODO: First condition is redundant!
                 if(house != home && house.resident == null) {
                     house.region.houseRentalMarket.offer(house, buyToLetRent(house));
@@ -212,7 +259,7 @@ public class Household implements IHouseOwner, Serializable {
         double principal;
         MortgageAgreement mortgage = mortgageFor(h);
         if(mortgage != null) {
-            principal = mortgage.principal;
+            principal = mortgage.getPrincipal();
         } else {
             principal = 0.0;
         }
@@ -256,9 +303,12 @@ public class Household implements IHouseOwner, Serializable {
         } else {
             bankBalance -= mortgage.downPayment;
             housePayments.put(sale.house, mortgage);
+            housingPaymentsChanged = true;
+            region.contractCalendar.schedule(mortgage, mortgage.getDueTime());
             if (home == null) { // move in to house
                 home = sale.house;
                 sale.house.resident = this;
+                behaviour.scheduleHomeSaleDecision(home.region);
             } else if (sale.house.resident == null) { // put empty buy-to-let house on rental market
                 sale.house.region.houseRentalMarket.offer(sale.house, buyToLetRent(sale.house));
             }
@@ -273,11 +323,12 @@ public class Household implements IHouseOwner, Serializable {
         MortgageAgreement mortgage = mortgageFor(sale.house);
         bankBalance += sale.getPrice();
         bankBalance -= mortgage.payoff(bankBalance);
+        housingPaymentsChanged = true;
         if(sale.house.isOnRentalMarket()) {
             sale.house.region.houseRentalMarket.removeOffer(sale);
         }
         // TODO: Warning, if bankBalance is not enough to pay mortgage back, then the house stays in housePayments, consequences to be checked!
-        if(mortgage.nPayments == 0) {
+        if(mortgage.getNPayments() == 0) {
             housePayments.remove(sale.house);
         }
         if(sale.house == home) { // move out of home and become (temporarily) homeless
@@ -319,6 +370,8 @@ public class Household implements IHouseOwner, Serializable {
     private void endTenancy() {
         home.owner.endOfLettingAgreement(home, housePayments.get(home));
         housePayments.remove(home);
+        housingPaymentsChanged = true;
+        dueTenancy = null;
         home.resident = null;
         home = null;
     //    endOfTenancyAgreement(home, housePayments.remove(home));
@@ -333,8 +386,10 @@ public class Household implements IHouseOwner, Serializable {
             System.out.println("Strange: got evicted from a home I own");
         }
         housePayments.remove(home);
+        housingPaymentsChanged = true;
+        dueTenancy = null;
         home.resident = null;
-        home = null;        
+        home = null;
     }
 
     
@@ -345,12 +400,14 @@ public class Household implements IHouseOwner, Serializable {
      ********************************************************/
     void completeHouseRental(HouseSaleRecord sale) {
         if(sale.house.owner != this) { // if renting own house, no need for contract
-            RentalAgreement rent = new RentalAgreement();
+            RentalAgreement rent = new RentalAgreement(this);
             rent.monthlyPayment = sale.getPrice();
-            rent.nPayments = config.TENANCY_LENGTH_AVERAGE
-                    + rand.nextInt(2*config.TENANCY_LENGTH_EPSILON + 1) - config.TENANCY_LENGTH_EPSILON;
+            rent.setNPayments(config.TENANCY_LENGTH_AVERAGE
+                    + rand.nextInt(2*config.TENANCY_LENGTH_EPSILON + 1) - config.TENANCY_LENGTH_EPSILON);
 //            rent.principal = rent.monthlyPayment*rent.nPayments;
             housePayments.put(sale.house, rent);
+            housingPaymentsChanged = true;
+            region.contractCalendar.schedule(rent, rent.getDueTime());
         }
         if(home != null) System.out.println("Strange: I'm renting a house but not homeless");
         home = sale.house;
@@ -412,11 +469,7 @@ public class Household implements IHouseOwner, Serializable {
         monthlyGrossRentalIncome += sale.getPrice();
     }
 
-    private double buyToLetRent(House h) {
-        return(behaviour.buyToLetRent(
-                h.region.regionalRentalMarketStats.getExpAvSalePriceForQuality(h.getQuality()),
-                h.region.regionalRentalMarketStats.getExpAvDaysOnMarket(), h));
-    }
+    private double buyToLetRent(House h) { return behaviour.buyToLetRent(h); }
 
     /////////////////////////////////////////////////////////
     // Inheritance behaviour
@@ -460,6 +513,7 @@ public class Household implements IHouseOwner, Serializable {
             }
             paymentIt.remove();
         }
+        housingPaymentsChanged = true;
         beneficiary.bankBalance += Math.max(0.0, bankBalance);
     }
     
@@ -472,13 +526,14 @@ public class Household implements IHouseOwner, Serializable {
      */
     private void inheritHouse(House h, boolean wasHome) {
         MortgageAgreement nullMortgage = new MortgageAgreement(this,false);
-        nullMortgage.nPayments = 0;
+        nullMortgage.setNPayments(0);
         nullMortgage.downPayment = 0.0;
         nullMortgage.monthlyInterestRate = 0.0;
         nullMortgage.monthlyPayment = 0.0;
         nullMortgage.principal = 0.0;
         nullMortgage.purchasePrice = 0.0;
         housePayments.put(h, nullMortgage);
+        housingPaymentsChanged = true;
         h.owner = this;
         if(h.resident != null) {
             System.out.println("Strange: inheriting a house with a resident");
@@ -490,6 +545,7 @@ public class Household implements IHouseOwner, Serializable {
             }
             home = h;
             h.resident = this;
+            behaviour.scheduleHomeSaleDecision(h.region);
         } else if(behaviour.isPropertyInvestor()) {
             if(decideToSellHouse(h)) {
                 putHouseForSale(h);
@@ -506,6 +562,8 @@ public class Household implements IHouseOwner, Serializable {
 
     public double getAge() { return age; }
 
+    int getLastFinancialUpdateTime() { return lastFinancialUpdateTime; }
+
     public boolean isHomeowner() {
         if(home == null) return(false);
         return(home.owner == this);
@@ -532,6 +590,8 @@ public class Household implements IHouseOwner, Serializable {
 
     public double getMonthlyGrossEmploymentIncome() { return monthlyGrossEmploymentIncome; }
 
+    double getMonthlyGrossRentalIncome() { return monthlyGrossRentalIncome; }
+
     /***
      * @return Number of properties this household currently has on the sale market
      */
@@ -551,7 +611,7 @@ public class Household implements IHouseOwner, Serializable {
     double getHomeEquity() {
         if(!isHomeowner()) return(0.0);
         return home.region.regionalHousingMarketStats.getExpAvSalePriceForQuality(home.getQuality())
-                - mortgageFor(home).principal;
+                - mortgageFor(home).getPrincipal();
     }
     
     public MortgageAgreement mortgageFor(House h) {
@@ -5,6 +5,9 @@ import java.io.Serializable;
 import org.apache.commons.math3.distribution.LogNormalDistribution;
 import org.apache.commons.math3.random.MersenneTwister;
 
+import utilities.ApproximateMath;
+import utilities.sampler.ZigguratSampler;
+
 /**************************************************************************************************
  * Class to implement the behavioural decisions made by households
  *
@@ -25,6 +28,7 @@ public class HouseholdBehaviour implements Serializable {
     private double                  propensityToSave;
     private LogNormalDistribution   downpaymentDistFTB; // Size distribution for downpayments of first-time-buyers
     private LogNormalDistribution   downpaymentDistOO; // Size distribution for downpayments of owner-occupiers
+    private double                  homeSaleThreshold; // Cumulative hazard of its region at which the household next considers selling its home
 
     //------------------------//
     //----- Constructors -----//
@@ -46,7 +50,7 @@ public class HouseholdBehaviour implements Serializable {
         downpaymentDistOO = new LogNormalDistribution(rand, config.DOWNPAYMENT_OO_SCALE,
                 config.DOWNPAYMENT_OO_SHAPE);
 	    // Compute propensity to save, so that it is constant for a given household
-        propensityToSave = config.DESIRED_BANK_BALANCE_EPSILON*rand.nextGaussian();
+        propensityToSave = config.DESIRED_BANK_BALANCE_EPSILON*nextGaussian();
         // Decide if household is a BTL investor and, if so, its tendency to seek capital gains or rental yields
 		BTLCapGainCoefficient = 0.0;
         // TODO: Check this if condition... why to divide by config.MIN_INVESTOR_PERCENTILE?
@@ -91,8 +95,8 @@ public class HouseholdBehaviour implements Serializable {
 	 * @param annualGrossTotalIncome Household
      */
 	double getDesiredBankBalance(double annualGrossTotalIncome) {
-		return Math.exp(config.DESIRED_BANK_BALANCE_ALPHA
-                + config.DESIRED_BANK_BALANCE_BETA*Math.log(annualGrossTotalIncome) + propensityToSave);
+		return exp(config.DESIRED_BANK_BALANCE_ALPHA
+                + config.DESIRED_BANK_BALANCE_BETA*log(annualGrossTotalIncome) + propensityToSave);
 	}
 
     //----- Owner-Occupier behaviour -----//
@@ -105,13 +109,10 @@ public class HouseholdBehaviour implements Serializable {
 	double getDesiredPurchasePrice(double monthlyIncome, Region region) {
 	    // TODO: This product is generally so small that it barely has any impact on the results, need to rethink if
         // TODO: it is necessary and if this small value makes any sense
-        double HPAFactor = config.BUY_WEIGHT_HPA*getLongTermHPAExpectation(region);
-        // TODO: The capping of this factor intends to avoid negative and too large desired prices, the 0.9 is a
-        // TODO: purely artificial fudge parameter. This formula should be reviewed and changed!
-        if (HPAFactor > 0.9) HPAFactor = 0.9;
+        double HPAFactor = region.marketView.getBuyHPAFactor();
         // TODO: Note that wealth is not used here, but only employmentIncome (as monthlyIncome refers here to monthlyGrossEmploymentIncome)
 		return config.BUY_SCALE*config.constants.MONTHS_IN_YEAR*monthlyIncome
-                *Math.exp(config.BUY_EPSILON*rand.nextGaussian())
+                *exp(config.BUY_EPSILON*nextGaussian())
                 /(1.0 - HPAFactor);
 	}
 
@@ -124,37 +125,73 @@ public class HouseholdBehaviour implements Serializable {
 	 */
 	double getInitialSalePrice(Region region, int quality, double principal) {
         double exponent = config.SALE_MARKUP
-                + Math.log(region.regionalHousingMarketStats.getExpAvSalePriceForQuality(quality) + 1.0)
-                - config.SALE_WEIGHT_DAYS_ON_MARKET*Math.log((region.regionalHousingMarketStats.getExpAvDaysOnMarket()
-                + 1.0)/(config.constants.DAYS_IN_MONTH + 1.0))
-                + config.SALE_EPSILON*rand.nextGaussian();
+                + region.marketView.getLogSalePricePlusOne(quality)
+                - region.marketView.getSaleDaysOnMarketTerm()
+                + config.SALE_EPSILON*nextGaussian();
         // TODO: ExpAv days on market should probably be computed for each quality band so as to use here only the correct one
-        return Math.max(Math.exp(exponent), principal);
+        return Math.max(exp(exponent), principal);
 	}
 
 	/**
-     * This method implements a household's decision to sell their owner-occupied property. On average, households sell
-     * owner-occupied houses every 11 years, due to exogenous reasons not addressed in the model. In order to prevent
-     * an unrealistic build-up of housing stock and unrealistic fluctuations of the interest rate, we modify this
-     * probability by introducing two extra factors, depending, respectively, on the number of houses per capita
+     * This method implements the monthly probability for owner-occupiers to decide to sell their home. On average,
+     * households sell owner-occupied houses every 11 years, due to exogenous reasons not addressed in the model. In order
+     * to prevent an unrealistic build-up of housing stock and unrealistic fluctuations of the interest rate, we modify
+     * this probability by introducing two extra factors, depending, respectively, on the number of houses per capita
      * currently on the market and its exponential moving average, and on the interest rate and its exponential moving
-     * average. In this way, the long-term selling probability converges to 1/11.
+     * average. In this way, the long-term selling probability converges to 1/11. Since this probability is the same for
+     * all owner-occupiers of a region, it is computed once per month by the region, before households make their
+     * housing decisions.
      * TODO: This method includes 2 unidentified fudge parameters, DECISION_TO_SELL_HPC (houses per capita) and
      * TODO: DECISION_TO_SELL_INTEREST, which are explicitly explained otherwise in the manuscript. URGENT!
      * TODO: Basically, need to implement both exponential moving averages referred above
      *
-     * @param house House (home) that owner is considering selling
-	 * @return True if the owner-occupier decides to sell the house and false otherwise.
-	 */
-	boolean decideToSellHome(House house) {
-        // TODO: This if implies BTL agents never sell their homes, need to explain in paper!
-        return !isPropertyInvestor() && (rand.nextDouble() < config.derivedParams.MONTHLY_P_SELL*(1.0
+     * @param region Region of the owner-occupied houses
+     * @return Monthly probability for an owner-occupier to decide to sell their home
+     */
+    static double getMonthlyProbabilityToSellHome(Config config, Region region) {
+        return config.derivedParams.MONTHLY_P_SELL*(1.0
                 + config.DECISION_TO_SELL_ALPHA*(config.DECISION_TO_SELL_HPC
-                - (double)house.region.houseSaleMarket.getnHousesOnMarket()/house.region.households.size())
+                - (double)region.houseSaleMarket.getnHousesOnMarket()/region.households.size())
                 + config.DECISION_TO_SELL_BETA*(config.DECISION_TO_SELL_INTEREST
-                - Model.bank.getMortgageInterestRate())));
+                - Model.bank.getMortgageInterestRate()));
+    }
+
+    /**
+     * Sample the next month in which an owner-occupier will consider selling their home, to be called whenever they
+     * move into a house they own or take their home off the market. Rather than drawing each month whether to sell,
+     * with the monthly probability p(t) of the region, the household draws once a threshold for the cumulative hazard
+     * of the region, the sum over months of -ln(1 - p(t)), exceeding its current value by a standard exponential
+     * sample. The household is then due to consider selling in the first month when the cumulative hazard reaches this
+     * threshold, which happens in each month with probability p(t), given it has not happened before, so that waiting
+     * times are geometric for a constant p, and adjust to any change of p(t) without being sampled again.
+     *
+     * @param region Region of the home
+     */
+    void scheduleHomeSaleDecision(Region region) {
+        // TODO: This if implies BTL agents never sell their homes, need to explain in paper!
+        if (!isPropertyInvestor()) {
+            homeSaleThreshold = region.getCumulativeHomeSaleHazard() + ZigguratSampler.nextExponential(rand);
+        }
+    }
+
+    /**
+     * @param region Region of the home
+     * @return True if the household is an owner-occupier due to consider selling their home this month
+     */
+    boolean isDueToConsiderSellingHome(Region region) {
+        return !isPropertyInvestor() && region.getCumulativeHomeSaleHazard() >= homeSaleThreshold;
     }
 
+	/**
+     * This method implements a household's decision to sell their owner-occupied property, with the monthly probability
+     * given by getMonthlyProbabilityToSellHome, through the threshold sampled in advance when the household moved in or
+     * last took the home off the market (see scheduleHomeSaleDecision)
+     *
+     * @param house House (home) that owner is considering selling
+	 * @return True if the owner-occupier decides to sell the house and false otherwise.
+	 */
+	boolean decideToSellHome(House house) { return isDueToConsiderSellingHome(house.region); }
+
 	/**
 	 * Decide amount to pay as initial downpayment
      *
@@ -173,7 +210,7 @@ public class HouseholdBehaviour implements Serializable {
                     (me.incomePercentile - config.DOWNPAYMENT_MIN_INCOME)/(1 - config.DOWNPAYMENT_MIN_INCOME)));
 		} else if (isPropertyInvestor()) {
 			downpayment = housePrice*(Math.max(0.0,
-					config.DOWNPAYMENT_BTL_MEAN + config.DOWNPAYMENT_BTL_EPSILON*rand.nextGaussian()));
+					config.DOWNPAYMENT_BTL_MEAN + config.DOWNPAYMENT_BTL_EPSILON*nextGaussian()));
 		} else {
 		    // TODO: Downpayments for inactive BTL investors (who are actually OO) should behave as for OO...
 			downpayment = Model.housingMarketStats.getHPI()*downpaymentDistOO.inverseCumulativeProbability(Math.max(0.0,
@@ -196,8 +233,8 @@ public class HouseholdBehaviour implements Serializable {
 	 ********************************************************/
 	public double rethinkHouseSalePrice(HouseSaleRecord sale) {
 		if(rand.nextDouble() < config.P_SALE_PRICE_REDUCE) {
-			double logReduction = config.REDUCTION_MU+(rand.nextGaussian()*config.REDUCTION_SIGMA);
-			return(sale.getPrice()*(1.0 - Math.exp(logReduction)/100.0));
+			double logReduction = config.REDUCTION_MU+(nextGaussian()*config.REDUCTION_SIGMA);
+			return(sale.getPrice()*(1.0 - exp(logReduction)/100.0));
 		}
 		return(sale.getPrice());
 	}
@@ -215,8 +252,8 @@ public class HouseholdBehaviour implements Serializable {
     public boolean decideRentOrPurchase(Household me, Region region, double desiredPurchasePrice) {
         if(isPropertyInvestor()) return(true);
         double purchasePrice = Math.min(desiredPurchasePrice, Model.bank.getMaxMortgage(me, true));
-        MortgageAgreement mortgageApproval = Model.bank.requestApproval(me, purchasePrice,
-                decideDownPayment(me, purchasePrice), true);
+        Bank.MortgagePreview mortgageApproval = region.mortgagePreview;
+        Model.bank.previewApproval(me, purchasePrice, decideDownPayment(me, purchasePrice), true, mortgageApproval);
         // TODO: Probably need to introduce a region within the household (jobRegion? birthRegion?), such that we can
         // TODO: here query that particular region...
         int newHouseQuality = region.regionalHousingMarketStats.getMaxQualityForPrice(purchasePrice);
@@ -265,7 +302,7 @@ public class HouseholdBehaviour implements Serializable {
         // ...find its current (fair market value) sale price
         double currentMarketPrice = h.region.regionalHousingMarketStats.getExpAvSalePriceForQuality(h.getQuality());
         // ...find equity, or assets minus liabilities
-        double equity = Math.max(0.01, currentMarketPrice - mortgage.principal); // The 0.01 prevents possible divisions by zero later on
+        double equity = Math.max(0.01, currentMarketPrice - mortgage.getPrincipal()); // The 0.01 prevents possible divisions by zero later on
         // ...find the leverage on that mortgage (Assets divided by equity, or return on equity)
 		double leverage = currentMarketPrice/equity;
         // ...find the expected rental yield of this property as its current rental price divided by its current (fair market value) sale price
@@ -277,7 +314,7 @@ public class HouseholdBehaviour implements Serializable {
 		double expectedEquityYield;
 		if(config.BTL_YIELD_SCALING) {
 			expectedEquityYield = leverage*((1.0 - BTLCapGainCoefficient)*currentRentalYield
-                    + BTLCapGainCoefficient*(h.region.regionalRentalMarketStats.getLongTermExpAvFlowYield()
+                    + BTLCapGainCoefficient*(h.region.marketView.getLongTermExpAvFlowYield()
 					+ getLongTermHPAExpectation(h.region))) - mortgageRate;
 		} else {
 			expectedEquityYield = leverage*((1.0 - BTLCapGainCoefficient)*currentRentalYield
@@ -318,20 +355,21 @@ public class HouseholdBehaviour implements Serializable {
         // household and assuming an average rental yield (over all qualities). This is found as a weighted mix of both
         // rental yield and capital gain times the leverage
         // ...find mortgage with maximum leverage by requesting maximum mortgage with minimum downpayment
-        MortgageAgreement mortgage = Model.bank.requestApproval(me, maxPrice, 0.0, false);
+        Bank.MortgagePreview mortgage = region.mortgagePreview;
+        Model.bank.previewApproval(me, maxPrice, 0.0, false, mortgage);
         // ...find equity, or assets minus liabilities (which, initially, is simply the downpayment)
         double equity = Math.max(0.01, mortgage.downPayment); // The 0.01 prevents possible divisions by zero later on
         // ...find the leverage on that mortgage (Assets divided by equity, or return on equity)
         double leverage = mortgage.purchasePrice/equity;
         // ...find the expected rental yield as an (exponential) average over all house qualities
-        double rentalYield = region.regionalRentalMarketStats.getExpAvFlowYield();
+        double rentalYield = region.marketView.getExpAvFlowYield();
         // ...find the mortgage rate (pounds paid a year per pound of equity)
-        double mortgageRate = mortgage.nextPayment()*config.constants.MONTHS_IN_YEAR/equity;
+        double mortgageRate = mortgage.monthlyPayment*config.constants.MONTHS_IN_YEAR/equity;
         // ...finally, find expected equity yield, or yield on equity
         double expectedEquityYield;
         if(config.BTL_YIELD_SCALING) {
             expectedEquityYield = leverage*((1.0 - BTLCapGainCoefficient)*rentalYield
-                    + BTLCapGainCoefficient*(region.regionalRentalMarketStats.getLongTermExpAvFlowYield()
+                    + BTLCapGainCoefficient*(region.marketView.getLongTermExpAvFlowYield()
                     + getLongTermHPAExpectation(region))) - mortgageRate;
         } else {
             expectedEquityYield = leverage*((1.0 - BTLCapGainCoefficient)*rentalYield
@@ -354,22 +392,19 @@ public class HouseholdBehaviour implements Serializable {
     }
 
 	/**
-	 * How much rent does an investor decide to charge on a buy-to-let house? 
-	 * @param rbar exponential average rent for house of this quality
-	 * @param d average days on market
+	 * How much rent does an investor decide to charge on a buy-to-let house? This depends on the exponential average
+	 * rent for houses of this quality and on the average days on the rental market, both read from the market view of
+	 * the region
+	 *
 	 * @param h house being offered for rent
 	 */
-	double buyToLetRent(double rbar, double d, House h) {
-		// TODO: What? Where does this equation come from?
-		final double beta = config.RENT_MARKUP/Math.log(config.RENT_EQ_MONTHS_ON_MARKET); // Weight of days-on-market effect
-
-		double exponent = config.RENT_MARKUP + Math.log(rbar + 1.0)
-                - beta*Math.log((d + 1.0)/(config.constants.DAYS_IN_MONTH + 1))
-                + config.RENT_EPSILON*rand.nextGaussian();
-		double result = Math.exp(exponent);
-        // TODO: The following contains a fudge (config.RENT_MAX_AMORTIZATION_PERIOD) to keep rental yield up
-		double minAcceptable = h.region.regionalHousingMarketStats.getExpAvSalePriceForQuality(h.getQuality())
-                /(config.RENT_MAX_AMORTIZATION_PERIOD*config.constants.MONTHS_IN_YEAR);
+	double buyToLetRent(House h) {
+		MarketView marketView = h.region.marketView;
+		double exponent = config.RENT_MARKUP + marketView.getLogRentPlusOne(h.getQuality())
+                - marketView.getRentDaysOnMarketTerm()
+                + config.RENT_EPSILON*nextGaussian();
+		double result = exp(exponent);
+		double minAcceptable = marketView.getMinAcceptableRent(h.getQuality());
 		if (result < minAcceptable) result = minAcceptable;
 		return result;
 
@@ -388,18 +423,31 @@ public class HouseholdBehaviour implements Serializable {
      *
      * @param x Parameter of the sigma or logistic function
      */
-    private double sigma(double x) { return 1.0/(1.0 + Math.exp(-1.0*x)); }
+    private double sigma(double x) {
+        return config.fastMath ? ApproximateMath.sigma(x) : 1.0/(1.0 + Math.exp(-1.0*x));
+    }
+
+    /**
+     * @return Sample from the standard normal distribution, drawn with the model's random number generator
+     */
+    private double nextGaussian() { return ZigguratSampler.nextGaussian(rand); }
+
+    //----- Mathematical functions, exact or approximate depending on config.fastMath -----//
+
+    private double exp(double x) { return config.fastMath ? ApproximateMath.exp(x) : Math.exp(x); }
+
+    private double log(double x) { return config.fastMath ? ApproximateMath.log(x) : Math.log(x); }
 
 	/**
      * @return expectation value of HPI in one year's time divided by today's HPI
      */
 	private double getLongTermHPAExpectation(Region region) {
-		// Dampening or multiplier factor, depending on its value being <1 or >1, for the current trend of HPA when
-		// computing expectations as in HPI(t+DT) = HPI(t) + FACTOR*DT*dHPI/dt (double)
-		return(region.regionalHousingMarketStats.getLongTermHPA()*config.HPA_EXPECTATION_FACTOR);
+		return region.marketView.getLongTermHPAExpectation();
     }
 
     public double getBTLCapGainCoefficient() { return BTLCapGainCoefficient; }
 
+    double getPropensityToSave() { return propensityToSave; }
+
     public boolean isPropertyInvestor() { return BTLInvestor; }
 }
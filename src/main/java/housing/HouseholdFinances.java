@@ -0,0 +1,179 @@
+package housing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import utilities.ApproximateMath;
+
+/**************************************************************************************************
+ * Class to perform, for all the households of a region at once, the financial part of their
+ * monthly step: ageing, employment income and taxes, housing payments, essential and non-essential
+ * consumption, and bankruptcies. Only housing payments, which may modify the bank's book of
+ * mortgages, need to visit each household object in turn. Everything else runs over primitive
+ * arrays, one household per index, in tight loops free of object dereferences, which can be split
+ * by index range and run as parallel fork-join tasks. Since each household only depends on its own
+ * values, results do not depend on how the range is split.
+ *
+ * All households of the region are updated before any of them makes its housing decisions.
+ *
+ *************************************************************************************************/
+public class HouseholdFinances {
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private static final int    MIN_TASK_SIZE = 2048; // Number of households below which a range is not split further
+
+    private Config	            config; // Private field to receive the Model's configuration parameters object
+    private double []           ages;
+    private double []           incomePercentiles;
+    private double []           propensitiesToSave;
+    private double []           monthlyGrossRentalIncomes;
+    private double []           housingPayments; // Mortgage and rental payments made this month
+    private double []           bankBalances;
+    private double []           annualGrossEmploymentIncomes;
+    private double []           monthlyEmploymentTaxes;
+    private boolean []          bankrupt;
+
+    //------------------------//
+    //----- Constructors -----//
+    //------------------------//
+
+    /**
+     * @param initialCapacity Number of households that can be updated before the arrays need to grow
+     */
+    HouseholdFinances(Config config, int initialCapacity) {
+        this.config = config;
+        initialCapacity = Math.max(initialCapacity, 16);
+        ages = new double[initialCapacity];
+        incomePercentiles = new double[initialCapacity];
+        propensitiesToSave = new double[initialCapacity];
+        monthlyGrossRentalIncomes = new double[initialCapacity];
+        housingPayments = new double[initialCapacity];
+        bankBalances = new double[initialCapacity];
+        annualGrossEmploymentIncomes = new double[initialCapacity];
+        monthlyEmploymentTaxes = new double[initialCapacity];
+        bankrupt = new boolean[initialCapacity];
+    }
+
+    //----------------------//
+    //----- Subclasses -----//
+    //----------------------//
+
+    /**
+     * Fork-join task updating a range of households, split in halves until below MIN_TASK_SIZE
+     */
+    private class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 4683153640587427306L;
+        // Fields
+        private final ArrayList<Household> households;
+        private final int from;
+        private final int to;
+        // Constructors
+        RangeTask(ArrayList<Household> households, int from, int to) {
+            this.households = households;
+            this.from = from;
+            this.to = to;
+        }
+        // Methods
+        @Override
+        protected void compute() {
+            if (to - from < 2*MIN_TASK_SIZE) {
+                updateRange(households, from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RangeTask(households, from, mid), new RangeTask(households, mid, to));
+            }
+        }
+    }
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    /**
+     * Update the finances of all the given households for the current month
+     *
+     * @param households Households of a region
+     */
+    void update(ArrayList<Household> households) {
+        int n = households.size();
+        ensureCapacity(n);
+        // Housing payments are made first, household by household, since paying off a mortgage removes it from the
+        // bank's book of mortgages, and the rest of the household state is copied into the arrays
+        for (int i = 0; i < n; i++) {
+            Household h = households.get(i);
+            housingPayments[i] = h.beginFinancialUpdate();
+            ages[i] = h.getAge();
+            incomePercentiles[i] = h.incomePercentile;
+            propensitiesToSave[i] = h.behaviour.getPropensityToSave();
+            monthlyGrossRentalIncomes[i] = h.getMonthlyGrossRentalIncome();
+            bankBalances[i] = h.getBankBalance();
+        }
+        // Everything else can then be computed independently for each household, in parallel if so configured
+        if (config.parallelHouseholdFinances && n >= 2*MIN_TASK_SIZE) {
+            ForkJoinPool.commonPool().invoke(new RangeTask(households, 0, n));
+        } else {
+            updateRange(households, 0, n);
+        }
+    }
+
+    /**
+     * Update the finances of households from (inclusive) to to (exclusive), once their housing payments have been made
+     */
+    private void updateRange(ArrayList<Household> households, int from, int to) {
+        // Employment income given age and income percentile, and taxes due on it
+        for (int i = from; i < to; i++) {
+            annualGrossEmploymentIncomes[i] = data.EmploymentIncome.getAnnualGrossEmploymentIncome(ages[i],
+                    incomePercentiles[i]);
+        }
+        Model.government.monthlyEmploymentTaxesDue(annualGrossEmploymentIncomes, monthlyEmploymentTaxes, from, to);
+        // Disposable income (net total income minus essential consumption and housing expenses), non-essential
+        // consumption (as in HouseholdBehaviour.getDesiredConsumption and getDesiredBankBalance) and bankruptcies
+        double monthsInYear = config.constants.MONTHS_IN_YEAR;
+        double returnOnFinancialWealth = config.RETURN_ON_FINANCIAL_WEALTH;
+        double essentialConsumption = config.ESSENTIAL_CONSUMPTION_FRACTION*config.GOVERNMENT_MONTHLY_INCOME_SUPPORT;
+        double consumptionFraction = config.CONSUMPTION_FRACTION;
+        double alpha = config.DESIRED_BANK_BALANCE_ALPHA;
+        double beta = config.DESIRED_BANK_BALANCE_BETA;
+        boolean fastMath = config.fastMath;
+        for (int i = from; i < to; i++) {
+            double monthlyGrossEmploymentIncome = annualGrossEmploymentIncomes[i]/monthsInYear;
+            double bankBalance = bankBalances[i];
+            bankBalance += monthlyGrossEmploymentIncome + monthlyGrossRentalIncomes[i]
+                    + bankBalance*returnOnFinancialWealth - monthlyEmploymentTaxes[i] - essentialConsumption
+                    - housingPayments[i];
+            double annualGrossTotalIncome = (monthlyGrossEmploymentIncome + monthlyGrossRentalIncomes[i]
+                    + bankBalance*returnOnFinancialWealth)*monthsInYear;
+            double desiredBankBalance = fastMath
+                    ? ApproximateMath.exp(alpha + beta*ApproximateMath.log(annualGrossTotalIncome)
+                            + propensitiesToSave[i])
+                    : Math.exp(alpha + beta*Math.log(annualGrossTotalIncome) + propensitiesToSave[i]);
+            bankBalance -= consumptionFraction*Math.max(bankBalance - desiredBankBalance, 0.0);
+            bankrupt[i] = bankBalance < 0.0;
+            bankBalances[i] = bankrupt[i] ? 1.0 : bankBalance;
+        }
+        // Finally, the results are written back into each household
+        for (int i = from; i < to; i++) {
+            households.get(i).completeFinancialUpdate(annualGrossEmploymentIncomes[i], monthlyEmploymentTaxes[i],
+                    bankBalances[i], bankrupt[i]);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ages.length) return;
+        capacity = Math.max(capacity, 2*ages.length);
+        ages = Arrays.copyOf(ages, capacity);
+        incomePercentiles = Arrays.copyOf(incomePercentiles, capacity);
+        propensitiesToSave = Arrays.copyOf(propensitiesToSave, capacity);
+        monthlyGrossRentalIncomes = Arrays.copyOf(monthlyGrossRentalIncomes, capacity);
+        housingPayments = Arrays.copyOf(housingPayments, capacity);
+        bankBalances = Arrays.copyOf(bankBalances, capacity);
+        annualGrossEmploymentIncomes = Arrays.copyOf(annualGrossEmploymentIncomes, capacity);
+        monthlyEmploymentTaxes = Arrays.copyOf(monthlyEmploymentTaxes, capacity);
+        bankrupt = Arrays.copyOf(bankrupt, capacity);
+    }
+}
@@ -2,12 +2,14 @@ package housing;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.List;
 
-import org.apache.commons.math3.distribution.GeometricDistribution;
 import org.apache.commons.math3.random.MersenneTwister;
 
+import collectors.FlightRecorderEvents;
 import utilities.PriorityQueue2D;
+import utilities.Sampling;
 
 /**************************************************************************************************
  * Class that implements the market mechanism behind both the sale and the rental markets
@@ -23,13 +25,22 @@ public abstract class HousingMarket implements Serializable {
     //------------------//
 
     private static Authority                        authority = new Authority();
+    private static HousingMarketRecord.PQComparator pqComparator = new HousingMarketRecord.PQComparator();
+    private static HouseBuyerRecord.PComparator     pComparator = new HouseBuyerRecord.PComparator();
 
     private Config	                                config; // Private field to receive the Model's configuration parameters object
     private MersenneTwister                         rand; // Private field to receive the Model's random number generator
     private Region                                  region;
     private PriorityQueue2D<HousingMarketRecord>    offersPQ;
+    private QualityBandIndex                        offersQB; // Quality-band index of offers, rebuilt once per time step
+    private int                                     nOversubscribedOffers; // Offers matched with more than one bid at the last clearing round
+    private ArrayList<HouseSaleRecord>              matchedOffers; // Offers matched with at least one bid in the current clearing round
+    private HouseSaleRecord []                      matchOffers; // Offer of each match of the current clearing round, in matching order
+    private HouseBuyerRecord []                     matchBids; // Bid of each match of the current clearing round, in matching order
+    private HouseBuyerRecord []                     matchedBids; // Arena with the bids matched to each offer in the current clearing round, contiguous for each offer
+    private ArrayList<HouseSaleRecord>              recycledOffers; // Records of offers taken off the market, ready for reuse
 
-    ArrayList<HouseBuyerRecord>                     bids;
+    BidBook                                         bids;
 
     //------------------------//
     //----- Constructors -----//
@@ -39,12 +50,17 @@ public abstract class HousingMarket implements Serializable {
         this.config = config;
         this.rand = rand;
         this.region = region;
-        offersPQ = new PriorityQueue2D<>(new HousingMarketRecord.PQComparator()); //Priority Queue of (Price, Quality)
-        // The integer passed to the ArrayList constructor is an initially declared capacity (for initial memory
+        offersPQ = new PriorityQueue2D<>(pqComparator); //Priority Queue of (Price, Quality)
+        offersQB = new QualityBandIndex(config.N_QUALITY);
+        matchedOffers = new ArrayList<>();
+        matchOffers = new HouseSaleRecord[16];
+        matchBids = new HouseBuyerRecord[16];
+        matchedBids = new HouseBuyerRecord[16];
+        recycledOffers = new ArrayList<>();
+        // The integer passed to the BidBook constructor is an initially declared capacity (for initial memory
         // allocation purposes), it will actually have size zero and only grow by adding elements
-        // TODO: Check if this integer is too large or small, check speed penalty for using ArrayList as opposed to
-        // TODO: normal arrays
-        bids = new ArrayList<>(config.TARGET_POPULATION/16);
+        // TODO: Check if this integer is too large or small
+        bids = new BidBook(config.TARGET_POPULATION/16);
     }
 
     //----------------------//
@@ -62,7 +78,10 @@ public abstract class HousingMarket implements Serializable {
 
     //----- Initialisation methods -----//
     
-    public void init() { offersPQ.clear(); }
+    public void init() {
+        offersPQ.clear();
+        offersQB.clear();
+    }
 
     //----- Methods to add, update, remove offers and bids -----//
     
@@ -74,11 +93,37 @@ public abstract class HousingMarket implements Serializable {
      * @return HouseSaleRecord for the house
      */
     public HouseSaleRecord offer(House house, double price) {
-        HouseSaleRecord hsr = new HouseSaleRecord(region, house, price);
+        HouseSaleRecord hsr = newOffer(house, price);
         offersPQ.add(hsr);
         return hsr;
     }
     
+    /**
+     * Put a batch of new offers on the market at once, merging them into the offers priority queue in a single pass
+     * rather than inserting them one by one
+     *
+     * @param houses Houses to put on the market
+     * @param prices List prices for the houses, in the same order
+     * @return HouseSaleRecords for the houses, in the same order
+     */
+    public List<HouseSaleRecord> offerAll(List<House> houses, double [] prices) {
+        ArrayList<HouseSaleRecord> newOffers = new ArrayList<>(houses.size());
+        for (int i = 0; i < houses.size(); i++) newOffers.add(newOffer(houses.get(i), prices[i]));
+        offersPQ.addAll(newOffers);
+        return newOffers;
+    }
+
+    /**
+     * Get a record for a new offer, reusing that of an offer already taken off the market if there is any, so that
+     * records are only allocated as the number of houses simultaneously on the market grows
+     */
+    private HouseSaleRecord newOffer(House house, double price) {
+        if (recycledOffers.isEmpty()) return new HouseSaleRecord(region, house, price);
+        HouseSaleRecord hsr = recycledOffers.remove(recycledOffers.size() - 1);
+        hsr.reset(region, house, price);
+        return hsr;
+    }
+
     /**
      * Change the list-price on a house that is already on the market
      * 
@@ -92,11 +137,27 @@ public abstract class HousingMarket implements Serializable {
     }
     
     /**
-     * Take a house off the market
+     * Multiply by a common factor the list-prices of several offers already on the market, updating the price-quality
+     * queue in bulk (see PriorityQueue2D.updateAll), in time linear in the number of offers on the market when these
+     * are a sizeable fraction of them
+     *
+     * @param offers The HouseSaleRecords of the houses to change the price for
+     * @param factor Factor by which to multiply their list-prices
+     */
+    void scaleOfferPrices(List<HouseSaleRecord> offers, double factor) {
+        offersPQ.updateAll(offers, hsr -> hsr.setPrice(hsr.getPrice()*factor, authority));
+    }
+
+    /**
+     * Take a house off the market. If the offer was on this market, its record is kept for reuse by a later offer, and
+     * thus must not be used after this call
      * 
      * @param hsr The HouseSaleRecord of the house to take off the market
      */
-    public void removeOffer(HouseSaleRecord hsr) { offersPQ.remove(hsr); }
+    public void removeOffer(HouseSaleRecord hsr) {
+        offersQB.remove(hsr);
+        if (offersPQ.remove(hsr)) recycledOffers.add(hsr);
+    }
 
     /**
      * Make a bid on the market (i.e. make an offer on a (yet to be decided) house
@@ -104,74 +165,143 @@ public abstract class HousingMarket implements Serializable {
      * @param buyer The household that is making the bid
      * @param price The price that the household is willing to pay
      */
-    public void bid(Household buyer, double price) {
-        bids.add(new HouseBuyerRecord(buyer, price)); }
+    public void bid(Household buyer, double price) { bids.add(buyer, price, false); }
 
     //----- Market clearing methods -----//
 
     /**
-     * Main simulation step. For a number of rounds, matches bids with offers and clears the matches.
+     * Main simulation step. For a number of rounds, matches bids with offers and clears the matches. Rounds stop early
+     * if the fraction of bids in a round that lead to a transaction falls below CLEARING_MIN_MATCH_RATE, so that the
+     * cost of clearing scales with market activity rather than with the size of the book of offers.
      */
     void clearMarket() {
-        // Before any use, priorities must be sorted by filling in the uncoveredElements TreeSet at the corresponding
-        // PriorityQueue2D
-        offersPQ.sortPriorities();
+        // Before any use, priorities must be sorted by rebuilding the offer indices from the current offers
+        sortPriorities();
         // offersPQ contains Price-Quality 2D-priority queue of offers
-        // offersPY contains Price-Yield 2D-priority queue of offers
+        // offersQB contains Quality-band index of offers
+        // offersPY contains Price-Yield index of offers
         // bids contains bids (HouseBuyerRecords) in an array
         // TODO: This number of rounds needs more thinking... this is just a cheap fix for the moment
         // TODO: This needs to be correctly described in the paper!!!
         int rounds = Math.max(10, region.households.size()/50); // Previously, int rounds = Math.min(config.TARGET_POPULATION/1000, 1 + (offersPQ.size() + bids.size())/500);
         int i = 0;
-        while (i < rounds && bids.size() > 0 && offersPQ.size() > 0) { // Previously, for(int i=0, i<rounds, i++) {
-            matchBidsWithOffers(); // Step 1: iterate through bids
-            clearMatches(); // Step 2: iterate through offers
+        boolean converged = false;
+        while (i < rounds && !converged && bids.size() > 0 && offersPQ.size() > 0) { // Previously, for(int i=0, i<rounds, i++) {
+            int nBidsInRound = bids.size();
+            FlightRecorderEvents.ClearingRound event = null;
+            if (FlightRecorderEvents.AVAILABLE) {
+                event = new FlightRecorderEvents.ClearingRound();
+                event.begin();
+            }
+            int bidsMatched = matchBidsWithOffers(); // Step 1: iterate through bids
+            int offersCleared = clearMatches(); // Step 2: iterate through offers
+            Model.performanceRecorder.recordClearingRound(bidsMatched, offersCleared);
+            converged = offersCleared < config.CLEARING_MIN_MATCH_RATE*nBidsInRound;
+            if (event != null && event.shouldCommit()) {
+                event.region = Model.geography.indexOf(region);
+                event.market = getClass().getSimpleName();
+                event.round = i;
+                event.bidsMatched = bidsMatched;
+                event.offersCleared = offersCleared;
+                event.oversubscribedOffers = nOversubscribedOffers;
+                event.bidsReturned = bids.size();
+                event.commit();
+            }
             i++; // Previously absent
         }
         bids.clear();
     }
 
+    /**
+     * Sort the priorities of the offers, so that offers can be peeked with getBestOffer. This needs to be done before
+     * any bid is matched, and can be overridden at HouseSaleMarket in order to sort also its price-yield priorities.
+     * Note that, rather than sorting the price-quality frontier of offersPQ, which would then need to be maintained as
+     * offers are removed, the quality-band index is rebuilt from the price-ordered offers
+     */
+    void sortPriorities() { offersQB.rebuild(offersPQ); }
+
     /**
      * First step to clear the market. Iterate through all bids and, for each bid, find the best quality house being
      * offered for that price or lower (if it exists) and record the match. Note that offers could be matched with
-     * multiple bids.
+     * multiple bids. Each offer matched with at least one bid is registered, once, at the matchedOffers list. Matched
+     * bids are then laid out in the arena of matched bids, those of each offer contiguously and in matching order, so
+     * that offers need no list of their own.
+     *
+     * @return Number of bids matched with an offer
      */
-    private void matchBidsWithOffers() {
+    private int matchBidsWithOffers() {
         HouseSaleRecord offer;
-        for(HouseBuyerRecord bid : bids) {
-            offer = getBestOffer(bid);
+        int bidsMatched = 0;
+        if (matchBids.length < bids.size()) {
+            matchOffers = new HouseSaleRecord[Math.max(bids.size(), 2*matchOffers.length)];
+            matchBids = new HouseBuyerRecord[matchOffers.length];
+            matchedBids = new HouseBuyerRecord[matchOffers.length];
+        }
+        for(int i = 0; i < bids.size(); i++) {
+            offer = getBestOffer(bids.getPrice(i), bids.getBuyer(i), bids.isBTL(i));
             // If buyer and seller is the same household, then the bid falls through and the household will need to
             // reissue it next month. Also, if the bid price is not enough to buy anything in this market and at this
             // time, the bid also falls through
-            if(offer != null && (offer.house.owner != bid.buyer)) {
-                offer.matchWith(bid);
+            if(offer != null && (offer.house.owner != bids.getBuyer(i))) {
+                // Only matched bids get a record (or keep the one they had if returned from a previous round)
+                matchOffers[bidsMatched] = offer;
+                matchBids[bidsMatched] = bids.getRecord(i);
+                if (offer.matchWithBid()) matchedOffers.add(offer);
+                bidsMatched++;
             }
         }
-        // To keep only matched bids, we clear the bids ArrayList, it will be refilled with unsuccessful bids when
-        // matches are cleared at clearMatches
+        // Give each matched offer its range of the arena, and then place each matched bid at the next free position of
+        // the range of its offer
+        int nextFree = 0;
+        for (int i = 0; i < matchedOffers.size(); i++) {
+            offer = matchedOffers.get(i);
+            offer.firstMatchedBid = nextFree;
+            nextFree += offer.nMatchedBids;
+            offer.nMatchedBids = 0;
+        }
+        for (int i = 0; i < bidsMatched; i++) {
+            offer = matchOffers[i];
+            matchedBids[offer.firstMatchedBid + offer.nMatchedBids++] = matchBids[i];
+        }
+        Arrays.fill(matchOffers, 0, bidsMatched, null);
+        Arrays.fill(matchBids, 0, bidsMatched, null);
+        // To keep only matched bids, we clear the bids book, it will be refilled with unsuccessful bids when matches
+        // are cleared at clearMatches
         bids.clear();
+        return bidsMatched;
     }
 
     /**
-     * Second step to clear the market. Iterate through all offers and, for each offer, loop through its matched bids.
-     * If BIDUP is activated, the offer price is bid up according to a geometric distribution with mean dependent on the
-     * number of matched bids.
+     * Second step to clear the market. Iterate through all offers matched with at least one bid, in the order of the
+     * offers priority queue, and, for each offer, loop through its matched bids. If BIDUP is activated, the offer price
+     * is bid up according to a geometric distribution with mean dependent on the number of matched bids. Since only
+     * matched offers are visited, the cost of this step scales with the number of matches rather than with the size of
+     * the book of offers. Once all matched offers are cleared, their records are kept for reuse by later offers.
+     *
+     * @return Number of offers cleared, i.e., number of transactions completed
      */
-    private void clearMatches() {
+    private int clearMatches() {
         // Clear and resolve oversubscribed offers
         HouseSaleRecord offer;
-        GeometricDistribution geomDist;
+        int from;
         int nBids;
+        int nBidsBelow;
         double pSuccessfulBid;
         double salePrice;
         int winningBid;
         int enoughBids; // Upper bounded number of bids on one house
-        Iterator<HousingMarketRecord> record = getOffersIterator();
-        while(record.hasNext()) {
-            offer = (HouseSaleRecord)record.next();
-            nBids = offer.matchedBids.size();
+        int offersCleared = 0;
+        nOversubscribedOffers = 0;
+        // Sort matched offers as they would be found when iterating through the offers priority queue, so as to keep
+        // a deterministic clearing order. Note that prices are only modified after removing each offer from the queues
+        matchedOffers.sort(pqComparator);
+        for (int i = 0; i < matchedOffers.size(); i++) {
+            offer = matchedOffers.get(i);
+            from = offer.firstMatchedBid;
+            nBids = offer.nMatchedBids;
             // If matches for this offer are multiple...
             if(nBids > 1) {
+                nOversubscribedOffers++;
                 // ...first bid up the price
                 if(config.BIDUP > 1.0) {
                     // TODO: All this enough bids mechanism is not explained! The 10000/N factor, the 0.5 added, and the
@@ -179,54 +309,118 @@ public abstract class HousingMarket implements Serializable {
                     enoughBids = Math.min(4, (int)(0.5 + nBids*10000.0/config.TARGET_POPULATION));
                     // TODO: Also, the role of MONTHS_UNDER_OFFER is not explained or declared!
                     pSuccessfulBid = Math.exp(-enoughBids*config.derivedParams.MONTHS_UNDER_OFFER);
-                    geomDist = new GeometricDistribution(rand, pSuccessfulBid);
-                    salePrice = offer.getPrice()*Math.pow(config.BIDUP, geomDist.sample());
+                    salePrice = offer.getPrice()*Math.pow(config.BIDUP, Sampling.nextGeometric(rand, pSuccessfulBid));
                 } else {
                     salePrice = offer.getPrice();                    
                 }
-                // ...then choose a bid above the new price
-                offer.matchedBids.sort(new HouseBuyerRecord.PComparator()); // This orders the list with the highest price last
-                while(nBids > 0 && offer.matchedBids.get(nBids - 1).getPrice() >= salePrice) {
-                    --nBids; // This counts the number of bids above the new price
-                }
-                if (offer.matchedBids.size() - nBids > 1) {
-                    winningBid = nBids + rand.nextInt(offer.matchedBids.size()- nBids); // This chooses a random one if they are multiple
-                } else if (offer.matchedBids.size() - nBids == 1) {
-                    winningBid = nBids; // This chooses the only one if there is only one
+                // ...then choose a bid above the new price, moving those bids to the end of the list, so that they would
+                // be in the same positions as if the list was sorted with the highest price last
+                nBidsBelow = partitionBidsByPrice(matchedBids, from, from + nBids, salePrice);
+                if (nBids - nBidsBelow > 1) {
+                    // This chooses a random one if they are multiple, selecting only the chosen position, in price order
+                    winningBid = nBidsBelow + rand.nextInt(nBids - nBidsBelow);
+                    selectBid(matchedBids, from + nBidsBelow, from + nBids - 1, from + winningBid);
+                } else if (nBids - nBidsBelow == 1) {
+                    winningBid = nBidsBelow; // This chooses the only one if there is only one
                 } else {
                     winningBid = nBids - 1;
-                    salePrice = offer.matchedBids.get(winningBid).getPrice(); // This chooses the highest bid if all of them are below the new price
+                    selectBid(matchedBids, from, from + nBids - 1, from + winningBid);
+                    salePrice = matchedBids[from + winningBid].getPrice(); // This chooses the highest bid if all of them are below the new price
                 }
-                // Remove this offer from the offers priority queue, offersPQ, underlying the record iterator (and, for HouseSaleMarket, also from the PY queue)
-                // Note that this needs to be done before modifying offer, so that it can be also found in the PY queue for the HouseSaleMarket case
-                removeOfferFromQueues(record, offer);
+                // Remove this offer from the offers priority queue, offersPQ (and, for HouseSaleMarket, also from the PY queue)
+                // Note that this needs to be done before modifying offer, so that it can be also found in the queues
+                removeOfferFromQueues(offer);
                 // ...update price for the offer
                 offer.setPrice(salePrice, authority);
                 // ...complete successful transaction and record it into the corresponding regionalHousingMarketStats
-                completeTransaction(offer.matchedBids.get(winningBid), offer);
+                completeTransaction(matchedBids[from + winningBid], offer);
                 // Put the rest of the bids for this property (failed bids) back on bids array
-                bids.addAll(offer.matchedBids.subList(0, winningBid));
-                bids.addAll(offer.matchedBids.subList(winningBid + 1, offer.matchedBids.size()));
+                for (int j = 0; j < nBids; j++) {
+                    if (j != winningBid) bids.add(matchedBids[from + j]);
+                }
+                offersCleared++;
             // If there is only one match...
             } else if (nBids == 1) {
                 // ...complete successful transaction and record it into the corresponding regionalHousingMarketStats
-                completeTransaction(offer.matchedBids.get(0), offer);
-                // ...remove this offer from the offers priority queue, offersPQ, underlying the record iterator (and, for HouseSaleMarket, also from the PY queue)
-                removeOfferFromQueues(record, offer);
+                completeTransaction(matchedBids[from], offer);
+                // ...remove this offer from the offers priority queue, offersPQ (and, for HouseSaleMarket, also from the PY queue)
+                removeOfferFromQueues(offer);
+                offersCleared++;
             }
-            // Note that we skip the whole process if there are no matches
         }
+        // Release the bids in the arena, whose ranges together span as many positions as matched bids, and keep the
+        // records of all cleared offers for reuse
+        int nMatchedBids = 0;
+        for (int i = 0; i < matchedOffers.size(); i++) nMatchedBids += matchedOffers.get(i).nMatchedBids;
+        Arrays.fill(matchedBids, 0, nMatchedBids, null);
+        recycledOffers.addAll(matchedOffers);
+        matchedOffers.clear();
+        return offersCleared;
+    }
+
+    /**
+     * Reorder a range of an array of bids such that bids with a price below the given price come first, followed by
+     * bids with a price equal to or above it
+     *
+     * @param bids Array of bids to reorder
+     * @param from First position of the range (inclusive)
+     * @param to Position after the last one of the range (exclusive)
+     * @param price Price separating both groups of bids
+     * @return Number of bids with a price below the given price
+     */
+    private static int partitionBidsByPrice(HouseBuyerRecord [] bids, int from, int to, double price) {
+        int nBelow = 0;
+        for (int i = from; i < to; i++) {
+            if (bids[i].getPrice() < price) swap(bids, i, from + nBelow++);
+        }
+        return nBelow;
+    }
+
+    /**
+     * Partially reorder a range of an array of bids, such that the bid at position k is the one that would be there if
+     * the range was sorted by price (with ties solved by id), with no bid ranking higher before it and no bid ranking
+     * lower after it. This is a deterministic quickselect, expected to take linear time in the length of the range
+     *
+     * @param bids Array of bids to reorder
+     * @param from First position of the range (inclusive)
+     * @param to Last position of the range (inclusive)
+     * @param k Position to select, within the range
+     */
+    private static void selectBid(HouseBuyerRecord [] bids, int from, int to, int k) {
+        while (from < to) {
+            HouseBuyerRecord pivot = bids[(from + to) >>> 1];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (pComparator.compare(bids[i], pivot) < 0) i++;
+                while (pComparator.compare(bids[j], pivot) > 0) j--;
+                if (i <= j) swap(bids, i++, j--);
+            }
+            if (k <= j) {
+                to = j;
+            } else if (k >= i) {
+                from = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(HouseBuyerRecord [] bids, int i, int j) {
+        HouseBuyerRecord bid = bids[i];
+        bids[i] = bids[j];
+        bids[j] = bid;
     }
 
     /**
      * Extracts the removal of successfully matched and cleared offers from the priority queues from the clearMatches
      * method, so that only this part can be overridden at HouseSaleMarket
      *
-     * @param record Iterator over the HousingMarketRecord objects contained in offersPQ
      * @param offer Offer to remove from queues
      */
-    void removeOfferFromQueues(Iterator<HousingMarketRecord> record, HouseSaleRecord offer) {
-        record.remove();
+    void removeOfferFromQueues(HouseSaleRecord offer) {
+        offersPQ.remove(offer);
+        offersQB.remove(offer);
     }
 
     /**
@@ -240,18 +434,20 @@ public abstract class HousingMarket implements Serializable {
 
     //----- Getter/setter methods -----//
 
-    public ArrayList<HouseBuyerRecord> getBids() { return bids; }
+    public BidBook getBids() { return bids; }
 
     public PriorityQueue2D<HousingMarketRecord> getOffersPQ() { return offersPQ; }
 
-    Iterator<HousingMarketRecord> getOffersIterator() { return(offersPQ.iterator()); }
-
     /**
      * Get the highest quality house being offered for a price up to that of the bid (OfferPrice <= bidPrice)
      *
-     * @param bid The highest possible price the buyer is ready to pay
+     * @param price The highest possible price the buyer is ready to pay
+     * @param buyer The household making the bid
+     * @param isBTL True if the bid is a buy-to-let bid
      */
-    protected HouseSaleRecord getBestOffer(HouseBuyerRecord bid) { return (HouseSaleRecord)offersPQ.peek(bid); }
+    protected HouseSaleRecord getBestOffer(double price, Household buyer, boolean isBTL) {
+        return offersQB.peek(price);
+    }
 
     int getnHousesOnMarket() { return offersPQ.size(); }
 }
@@ -1,6 +1,7 @@
 package housing;
 
 import java.io.Serializable;
+import java.util.Comparator;
 
 import utilities.PriorityQueue2D;
 
@@ -41,7 +42,8 @@ public abstract class HousingMarketRecord implements Serializable {
      * Class that implements the comparators needed for inserting HousingMarketRecord objects into PriorityQueue2D. In
      * particular, this class implements the comparators for a price-quality priority queue.
      */
-    public static class PQComparator implements PriorityQueue2D.XYComparator<HousingMarketRecord>, Serializable {
+    public static class PQComparator implements PriorityQueue2D.XYComparator<HousingMarketRecord>,
+            Comparator<HousingMarketRecord>, Serializable {
         private static final long serialVersionUID = 6225466622291609603L;
 
         /**
@@ -68,6 +70,12 @@ public abstract class HousingMarketRecord implements Serializable {
         public int YCompare(HousingMarketRecord arg0, HousingMarketRecord arg1) {
             return Integer.signum(arg0.getQuality() - arg1.getQuality());
         }
+
+        /**
+         * @return Same as XYCompare, so that lists of records can be sorted in the order of the price-quality queue
+         */
+        @Override
+        public int compare(HousingMarketRecord arg0, HousingMarketRecord arg1) { return XYCompare(arg0, arg1); }
     }
 
     /**
@@ -124,6 +132,14 @@ public abstract class HousingMarketRecord implements Serializable {
         return price;
     }
 
+    /**
+     * Reset the record for reuse, as if newly constructed with the given price, taking a new id
+     */
+    void reset(double price) {
+        this.price = price;
+        id = id_pool++;
+    }
+
     /**
      * only the housing market has the authority to change the price of a market record
      */
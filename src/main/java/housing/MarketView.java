@@ -0,0 +1,93 @@
+package housing;
+
+/**************************************************************************************************
+ * Immutable snapshot of the regional market expectations read by household behaviour, such as the
+ * expected house price appreciation and the logarithmic price and days-on-market terms used when
+ * setting sale prices and rents. These only change when the regional market statistics are updated
+ * after clearing each market, so they are computed once at that point, instead of once for every
+ * household decision.
+ *
+ *************************************************************************************************/
+public final class MarketView {
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private final double    longTermHPAExpectation; // Expected HPI in one year's time divided by today's HPI
+    private final double    buyHPAFactor; // Capped weight of expected appreciation on desired purchase prices
+    private final double    saleDaysOnMarketTerm; // Weighted log of expected days on the sale market, relative to a month
+    private final double [] logSalePricePlusOne; // Log of the expected sale price plus one, for each quality band
+    private final double    rentDaysOnMarketTerm; // Weighted log of expected days on the rental market, relative to a month
+    private final double [] logRentPlusOne; // Log of the expected rent plus one, for each quality band
+    private final double [] minAcceptableRent; // Minimum rent acceptable to investors, for each quality band
+    private final double    expAvFlowYield;
+    private final double    longTermExpAvFlowYield;
+
+    //------------------------//
+    //----- Constructors -----//
+    //------------------------//
+
+    /**
+     * Build a snapshot of the expectations derived from the current regional market statistics
+     *
+     * @param config Model's configuration parameters object
+     * @param region Region whose market statistics are to be read
+     */
+    MarketView(Config config, Region region) {
+        int nQuality = config.N_QUALITY;
+        // Sale market expectations
+        // Dampening or multiplier factor, depending on its value being <1 or >1, for the current trend of HPA when
+        // computing expectations as in HPI(t+DT) = HPI(t) + FACTOR*DT*dHPI/dt (double)
+        longTermHPAExpectation = region.regionalHousingMarketStats.getLongTermHPA()*config.HPA_EXPECTATION_FACTOR;
+        // TODO: The capping of this factor intends to avoid negative and too large desired prices, the 0.9 is a
+        // TODO: purely artificial fudge parameter. This formula should be reviewed and changed!
+        buyHPAFactor = Math.min(config.BUY_WEIGHT_HPA*longTermHPAExpectation, 0.9);
+        saleDaysOnMarketTerm = config.SALE_WEIGHT_DAYS_ON_MARKET
+                *Math.log((region.regionalHousingMarketStats.getExpAvDaysOnMarket() + 1.0)
+                /(config.constants.DAYS_IN_MONTH + 1.0));
+        logSalePricePlusOne = new double[nQuality];
+        for (int q = 0; q < nQuality; q++) {
+            logSalePricePlusOne[q] = Math.log(region.regionalHousingMarketStats.getExpAvSalePriceForQuality(q) + 1.0);
+        }
+        // Rental market expectations
+        // TODO: What? Where does this equation come from?
+        double beta = config.RENT_MARKUP/Math.log(config.RENT_EQ_MONTHS_ON_MARKET); // Weight of days-on-market effect
+        rentDaysOnMarketTerm = beta*Math.log((region.regionalRentalMarketStats.getExpAvDaysOnMarket() + 1.0)
+                /(config.constants.DAYS_IN_MONTH + 1));
+        logRentPlusOne = new double[nQuality];
+        minAcceptableRent = new double[nQuality];
+        for (int q = 0; q < nQuality; q++) {
+            logRentPlusOne[q] = Math.log(region.regionalRentalMarketStats.getExpAvSalePriceForQuality(q) + 1.0);
+            // TODO: The following contains a fudge (config.RENT_MAX_AMORTIZATION_PERIOD) to keep rental yield up
+            minAcceptableRent[q] = region.regionalHousingMarketStats.getExpAvSalePriceForQuality(q)
+                    /(config.RENT_MAX_AMORTIZATION_PERIOD*config.constants.MONTHS_IN_YEAR);
+        }
+        expAvFlowYield = region.regionalRentalMarketStats.getExpAvFlowYield();
+        longTermExpAvFlowYield = region.regionalRentalMarketStats.getLongTermExpAvFlowYield();
+    }
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    //----- Getter/setter methods -----//
+
+    public double getLongTermHPAExpectation() { return longTermHPAExpectation; }
+
+    public double getBuyHPAFactor() { return buyHPAFactor; }
+
+    public double getSaleDaysOnMarketTerm() { return saleDaysOnMarketTerm; }
+
+    public double getLogSalePricePlusOne(int quality) { return logSalePricePlusOne[quality]; }
+
+    public double getRentDaysOnMarketTerm() { return rentDaysOnMarketTerm; }
+
+    public double getLogRentPlusOne(int quality) { return logRentPlusOne[quality]; }
+
+    public double getMinAcceptableRent(int quality) { return minAcceptableRent[quality]; }
+
+    public double getExpAvFlowYield() { return expAvFlowYield; }
+
+    public double getLongTermExpAvFlowYield() { return longTermExpAvFlowYield; }
+}
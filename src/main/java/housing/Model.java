@@ -55,6 +55,7 @@ public class Model {
     public static HousingMarketStats    housingMarketStats;
     public static RentalMarketStats     rentalMarketStats;
     public static MicroDataRecorder     transactionRecorder;
+    public static PerformanceRecorder   performanceRecorder;
     public static int	                nSimulation; // To keep track of the simulation number
     public static int	                t; // To keep track of time (in months)
 
@@ -90,6 +91,7 @@ public class Model {
 
         recorder = new collectors.Recorder(outputFolder);
         transactionRecorder = new collectors.MicroDataRecorder(outputFolder);
+        performanceRecorder = new collectors.PerformanceRecorder(outputFolder);
         creditSupply = new collectors.CreditSupply(outputFolder);
         coreIndicators = new collectors.CoreIndicators();
         householdStats = new collectors.HouseholdStats(geography);
@@ -108,8 +110,14 @@ public class Model {
 	    // Handle input arguments from command line
         handleInputArguments(args);
 
-        // Create an instance of Model in order to initialise it (reading config file)
-        new Model(configFileName, outputFolder);
+        // Create an instance of Model in order to initialise it (reading config file), stopping the program with a
+        // report of all problems found if the config file cannot be read correctly
+        try {
+            new Model(configFileName, outputFolder);
+        } catch (Config.InvalidConfigException ice) {
+            System.err.println(ice.getMessage());
+            System.exit(1);
+        }
 
         // Start data recorders for output
         setupStatics();
@@ -122,6 +130,7 @@ public class Model {
 
             // For each simulation, open files for writing single-run results
             recorder.openSingleRunFiles(nSimulation);
+            performanceRecorder.openSingleRunFile(nSimulation);
 
 		    // For each simulation, initialise both houseSaleMarket and houseRentalMarket variables (including HPI)
             init();
@@ -135,9 +144,14 @@ public class Model {
 
 //                if (t >= config.TIME_TO_START_RECORDING) {
                     // Write results of this time step and run to both multi- and single-run files
+                    long start = performanceRecorder.startPhase();
                     recorder.writeTimeStampResults(config.recordCoreIndicators, t);
+                    performanceRecorder.endPhase(PerformanceRecorder.Phase.RECORDER, start);
 //                }
 
+                // Write timings of this time step, including recorder output, to the performance file
+                performanceRecorder.writeTimeStampResults(t);
+
                 // Print time information to screen
                 if (t % 100 == 0) {
                     System.out.println("Simulation: " + nSimulation + ", time: " + t);
@@ -146,6 +160,7 @@ public class Model {
 
 			// Finish each simulation within the recorders (closing single-run files, changing line in multi-run files)
             recorder.finishRun(config.recordCoreIndicators);
+            performanceRecorder.finishRun();
             // TODO: Check what this is actually doing and if it is necessary
             if(config.recordMicroData) transactionRecorder.endOfSim();
 		}
@@ -158,13 +173,14 @@ public class Model {
 		System.exit(0);
 	}
 
-	private static void setupStatics() {
+	static void setupStatics() {
         setRecordGeneral();
 		setRecordCoreIndicators(config.recordCoreIndicators);
 		setRecordMicroData(config.recordMicroData);
+		setRecordPerformance(config.recordPerformance);
 	}
 
-	private static void init() {
+	static void init() {
         demographics.init();
 		construction.init();
 		bank.init();
@@ -175,14 +191,33 @@ public class Model {
         for(Region r : geography) r.init();
 	}
 
-	private static void modelStep() {
+	static void modelStep() {
+        stepBeforeRegions();
+        // Update, for each region, its households, market statistics collectors and markets (timed within each region)
+        for(Region r : geography) r.step();
+        stepAfterRegions();
+	}
+
+    /**
+     * First part of the model step, run before the regions are stepped: demographics and construction
+     */
+    static void stepBeforeRegions() {
         // Update population with births and deaths in each region
+        long start = performanceRecorder.startPhase();
         demographics.step();
+        start = performanceRecorder.endPhase(PerformanceRecorder.Phase.DEMOGRAPHICS, start);
         // Update number of houses in each region
         construction.step();
-        // Update, for each region, its households, market statistics collectors and markets
-        for(Region r : geography) r.step();
+        performanceRecorder.endPhase(PerformanceRecorder.Phase.CONSTRUCTION, start);
+    }
+
+    /**
+     * Last part of the model step, run once all regions have been stepped: aggregate statistics, credit supply, bank
+     * and central bank
+     */
+    static void stepAfterRegions() {
         // Update all sale market statistics by collecting and aggregating results from the regions
+        long start = performanceRecorder.startPhase();
         housingMarketStats.collectRegionalRecords();
         // Update all rental market statistics by collecting and aggregating results from the regions
         rentalMarketStats.collectRegionalRecords();
@@ -190,10 +225,12 @@ public class Model {
         householdStats.collectRegionalRecords();
         // Update all credit supply statistics // TODO: Check what this actually does and if it should go elsewhere!
         creditSupply.step();
+        start = performanceRecorder.endPhase(PerformanceRecorder.Phase.COLLECTORS, start);
 		// Update bank and interest rate for new mortgages
 		bank.step(demographics.getTotalPopulation());
         // Update central bank policies (currently empty!)
 		centralBank.step(coreIndicators);
+        performanceRecorder.endPhase(PerformanceRecorder.Phase.BANK, start);
 	}
 
     /**
@@ -325,4 +362,6 @@ public class Model {
 
 	private static void setRecordMicroData(boolean record) { transactionRecorder.setActive(record); }
 
+	private static void setRecordPerformance(boolean record) { performanceRecorder.setActive(record); }
+
 }
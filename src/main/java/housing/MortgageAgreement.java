@@ -2,7 +2,8 @@ package housing;
 
 /**************************************************************************************************
  * Class to represent a mortgage contract, keeping track of the updated principal due, the monthly
- * payment, the number of payments left, etc.
+ * payment, the number of payments left, etc. The principal is brought up to date lazily, whenever
+ * it is read, by applying the monthly payments made since it was last read.
  *
  * @author daniel, Adrian Carro
  *
@@ -19,7 +20,8 @@ public class MortgageAgreement extends PaymentAgreement {
     private boolean         isActive;
 	public final boolean    isBuyToLet;
 	public final boolean    isFirstTimeBuyer;
-	public double           principal; // Remaining principal to be paid off
+	double                  principal; // Remaining principal to be paid off, after the payments up to principalTime
+	private int             principalTime; // Time step of the last payment applied to the principal
 	double                  monthlyInterestRate;
 
     //------------------------//
@@ -27,9 +29,11 @@ public class MortgageAgreement extends PaymentAgreement {
     //------------------------//
 
 	MortgageAgreement(Household borrower, boolean isBuyToLet) {
+		super(borrower);
 		this.isBuyToLet = isBuyToLet;
 		this.isFirstTimeBuyer = !isBuyToLet && borrower.isFirstTimeBuyer();
 		isActive = true;
+		principalTime = borrower.getLastFinancialUpdateTime();
 	}
 
     //-------------------//
@@ -37,31 +41,48 @@ public class MortgageAgreement extends PaymentAgreement {
     //-------------------//
 
 	/**
-	 * This method updates the internal variables to simulate a monthly payment being made, though it does not move any
-     * assets from payer to payee!
+	 * This method returns the payment due at the current financial update of the borrower, though it does not move any
+     * assets from payer to payee! The principal is reduced accordingly when next read.
 	 * 
 	 * @return The amount of the monthly payment
 	 */
 	@Override
     public double makeMonthlyPayment() {
 	    // If no more payments are due...
-        if (nPayments == 0) {
+        if (payer.getLastFinancialUpdateTime() > lastPaymentTime) {
             // ...but mortgage is still active...
             if (isActive) {
                 isActive = false; // ...then deactivate the mortgage...
-                return payoff(principal); // ...by paying off all remaining principle (this also removes mortgage from the bank's list)...
+                return payoff(getPrincipal()); // ...by paying off all remaining principle (this also removes mortgage from the bank's list)...
             // ...otherwise, if mortgage is already inactive...
             } else {
                 return 0.0; // ...simply return a zero payment
             }
         // If more payments are still due...
         } else {
-            nPayments -= 1; // ...then reduce number of payments due by one,
-            principal = principal*(1.0 + monthlyInterestRate) - monthlyPayment; // ...reduce amount due by amount to be paid this month
-            return monthlyPayment; // ...and return the monthly payment
+            return monthlyPayment; // ...simply return the monthly payment
         }
 	}
 
+    /**
+     * @return Time step at which the mortgage comes due at the borrower's region ContractCalendar, the one after its
+     * last payment, when any remaining principal is paid off
+     */
+    @Override
+    int getDueTime() { return lastPaymentTime + 1; }
+
+    /**
+     * @return Remaining principal to be paid off, after all payments made up to the last financial update of the
+     * borrower
+     */
+    public double getPrincipal() {
+        int time = Math.min(lastPaymentTime, payer.getLastFinancialUpdateTime());
+        for (; principalTime < time; principalTime++) {
+            principal = principal*(1.0 + monthlyInterestRate) - monthlyPayment;
+        }
+        return principal;
+    }
+
 	/**
 	 * Use this method to pay off the mortgage early or make a one-off payment.
 	 * 
@@ -69,11 +90,11 @@ public class MortgageAgreement extends PaymentAgreement {
 	 * @return The amount that was actually paid off
 	 */
 	double payoff(double amount) {
-		if (amount >= principal) {
+		if (amount >= getPrincipal()) {
             amount = principal;
             principal = 0.0;
             monthlyPayment = 0.0;
-            nPayments = 0;
+            setNPayments(0);
             Model.bank.endMortgageContract(this);
 		} else {
 			monthlyPayment *= (principal - amount)/principal;
@@ -87,5 +108,5 @@ public class MortgageAgreement extends PaymentAgreement {
      *
      * @return The amount that was actually paid off
      */
-	double payoff() { return payoff(principal); }
+	double payoff() { return payoff(getPrincipal()); }
 }
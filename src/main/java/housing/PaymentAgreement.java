@@ -4,8 +4,10 @@ import java.io.Serializable;
 
 /**************************************************************************************************
  * Class to represent a payment contract in general, so as to include both mortgage and rental
- * contracts. It keeps track of the monthly payments associated to the contract and the number of
- * payments left.
+ * contracts. It keeps track of the monthly payments associated to the contract and of the time
+ * step of its last payment, such that the number of payments left follows in closed form from the
+ * time step of the last financial update of the payer, and no counter needs to be updated as
+ * payments are made.
  *
  * @author daniel, davidrpugh, Adrian Carro
  *
@@ -17,24 +19,38 @@ public class PaymentAgreement implements Serializable {
     //----- Fields -----//
     //------------------//
 
-    int 		    nPayments;
+    final Household payer;
+    int             lastPaymentTime; // Time step of the last payment due, payments being due at every step up to it
     public double 	monthlyPayment;
 
+    //------------------------//
+    //----- Constructors -----//
+    //------------------------//
+
+    /**
+     * New agreement with no payments due
+     *
+     * @param payer Household making the monthly payments
+     */
+    PaymentAgreement(Household payer) {
+        this.payer = payer;
+        lastPaymentTime = payer.getLastFinancialUpdateTime();
+    }
+
     //-------------------//
     //----- Methods -----//
     //-------------------//
 
     /**
-     * This method updates the internal variables to simulate a monthly payment being made, though it does not move any
+     * This method returns the payment due at the current financial update of the payer, though it does not move any
      * assets from payer to payee!
      *
      * @return The amount of the monthly payment
      */
 	public double makeMonthlyPayment() {
-		if (nPayments == 0) {
+		if (payer.getLastFinancialUpdateTime() > lastPaymentTime) {
 		    return 0.0;
         } else {
-            nPayments -= 1;
             return monthlyPayment;
         }
 	}
@@ -46,10 +62,26 @@ public class PaymentAgreement implements Serializable {
 	 * @return The amount of the next monthly payment
 	 */
 	double nextPayment() {
-		if (nPayments == 0) {
+		if (getNPayments() == 0) {
 		    return 0.0;
         } else {
 		    return monthlyPayment;
         }
 	}
+
+    /**
+     * @return Number of payments left after the last financial update of the payer
+     */
+    int getNPayments() { return Math.max(0, lastPaymentTime - payer.getLastFinancialUpdateTime()); }
+
+    /**
+     * Set the number of payments left after the last financial update of the payer, one at each following time step
+     */
+    void setNPayments(int nPayments) { lastPaymentTime = payer.getLastFinancialUpdateTime() + nPayments; }
+
+    /**
+     * @return Time step at which the agreement comes due at the payer's region ContractCalendar, that of its last
+     * payment for a rental agreement
+     */
+    int getDueTime() { return lastPaymentTime; }
 }
@@ -0,0 +1,181 @@
+package housing;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**************************************************************************************************
+ * Class to find, for buy-to-let bids, the offer with the highest expected yield among those with a
+ * price up to the bid price. Offers are stored as primitive arrays of prices and yields, sorted by
+ * increasing price (and decreasing yield and increasing id for equal prices), together with a
+ * segment tree holding, for each range of positions, the position of the offer with the highest
+ * yield (the cheapest one in case of equal yields), so that each query and each removal takes
+ * logarithmic time without any virtual call to getYield.
+ *
+ * Rather than being updated with every new offer or price change, the index is rebuilt once per
+ * time step, right before the market is cleared, from the price-quality queue of offers. During
+ * market clearing, offers can only be removed from it.
+ *
+ *************************************************************************************************/
+public class PriceYieldIndex implements Serializable {
+    private static final long serialVersionUID = 2853160458394757811L;
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private HouseSaleRecord []  offers;
+    private double []           prices;
+    private double []           yields;
+    private int []              ids;
+    private int []              tree; // Position of the best offer for each node, -1 for nodes without offers
+    private int                 size;
+    private int                 leaves; // Number of leaves of the segment tree, a power of two at least equal to size
+
+    //------------------------//
+    //----- Constructors -----//
+    //------------------------//
+
+    PriceYieldIndex() {
+        offers = new HouseSaleRecord[16];
+        prices = new double[16];
+        yields = new double[16];
+        ids = new int[16];
+        tree = new int[32];
+        size = 0;
+        leaves = 1;
+    }
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    /**
+     * Rebuild the index from all offers currently on the market
+     *
+     * @param offersPQ Price-quality priority queue of offers, whose iteration order is by increasing price
+     */
+    void rebuild(Iterable<HousingMarketRecord> offersPQ, int nOffers) {
+        clear();
+        ensureCapacity(nOffers);
+        for (HousingMarketRecord element: offersPQ) {
+            HouseSaleRecord offer = (HouseSaleRecord)element;
+            int i = size++;
+            offers[i] = offer;
+            prices[i] = offer.getPrice();
+            yields[i] = offer.getYield();
+            ids[i] = offer.getId();
+            // Offers with equal prices come sorted by quality, sort them instead by decreasing yield and increasing id
+            while (i > 0 && prices[i - 1] == prices[i] && comesBefore(i, i - 1)) {
+                swap(i, i - 1);
+                i--;
+            }
+        }
+        leaves = 1;
+        while (leaves < size) leaves <<= 1;
+        if (tree.length < 2*leaves) tree = new int[2*leaves];
+        for (int i = 0; i < leaves; i++) tree[leaves + i] = i < size ? i : -1;
+        for (int node = leaves - 1; node > 0; node--) tree[node] = best(tree[2*node], tree[2*node + 1]);
+    }
+
+    /**
+     * Find the offer with the highest yield, and the lowest price among those with equal yields, among all offers with
+     * a price up to the given one
+     *
+     * @param maxPrice Highest price the buyer is ready to pay
+     * @return Best offer, or null if there is no offer with a price up to maxPrice
+     */
+    HouseSaleRecord peek(double maxPrice) {
+        // Find the number of offers with a price up to maxPrice...
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices[mid] <= maxPrice) lo = mid + 1; else hi = mid;
+        }
+        if (lo == 0) return null;
+        // ...and find the best among them by climbing up the tree from the leaves of the [0, lo) range
+        int result = -1;
+        int l = leaves;
+        int r = leaves + lo;
+        while (l < r) {
+            if ((l & 1) == 1) result = best(result, tree[l++]);
+            if ((r & 1) == 1) result = best(result, tree[--r]);
+            l >>= 1;
+            r >>= 1;
+        }
+        return result == -1 ? null : offers[result];
+    }
+
+    /**
+     * Remove an offer from the index, if present
+     *
+     * @param offer Offer to remove
+     */
+    void remove(HouseSaleRecord offer) {
+        // Find the first position with the price of the offer, and then look for the offer among equal prices
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices[mid] < offer.getPrice()) lo = mid + 1; else hi = mid;
+        }
+        while (lo < size && prices[lo] == offer.getPrice() && offers[lo] != offer) lo++;
+        if (lo == size || offers[lo] != offer || tree[leaves + lo] == -1) return;
+        int node = leaves + lo;
+        tree[node] = -1;
+        for (node >>= 1; node > 0; node >>= 1) tree[node] = best(tree[2*node], tree[2*node + 1]);
+    }
+
+    /**
+     * Remove all offers from the index, keeping its capacity
+     */
+    void clear() {
+        Arrays.fill(offers, 0, size, null);
+        size = 0;
+        leaves = 1;
+        tree[1] = -1;
+    }
+
+    /**
+     * @return Best of two positions, that with the highest yield or, for equal yields, the lowest position, with -1
+     * standing for no position
+     */
+    private int best(int i, int j) {
+        if (i == -1) return j;
+        if (j == -1) return i;
+        if (yields[i] != yields[j]) return yields[i] > yields[j] ? i : j;
+        return Math.min(i, j);
+    }
+
+    /**
+     * @return True if the offer at position i comes before the one at position j among offers with equal price
+     */
+    private boolean comesBefore(int i, int j) {
+        if (yields[i] != yields[j]) return yields[i] > yields[j];
+        return ids[i] < ids[j];
+    }
+
+    private void swap(int i, int j) {
+        HouseSaleRecord offer = offers[i];
+        offers[i] = offers[j];
+        offers[j] = offer;
+        double price = prices[i];
+        prices[i] = prices[j];
+        prices[j] = price;
+        double yield = yields[i];
+        yields[i] = yields[j];
+        yields[j] = yield;
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= offers.length) return;
+        capacity = Math.max(capacity, 2*offers.length);
+        offers = Arrays.copyOf(offers, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        yields = Arrays.copyOf(yields, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+    }
+}
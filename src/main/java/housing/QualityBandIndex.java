@@ -0,0 +1,127 @@
+package housing;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**************************************************************************************************
+ * Class to find, for owner-occupier and rental bids, the offer with the highest quality among those
+ * with a price up to the bid price. Since quality takes only N_QUALITY different values, offers are
+ * stored in one price-sorted primitive array per quality band (with ties solved by id), together
+ * with the cheapest price still on offer at each band. A query then simply scans the bands from the
+ * highest quality down, stopping at the first band whose cheapest offer fits the bid price, which
+ * is the cheapest offer with the highest quality, as would be found at the price-quality frontier
+ * of a PriorityQueue2D, but without having to maintain that frontier as offers are removed.
+ *
+ * As the PriceYieldIndex, the index is rebuilt once per time step, right before the market is
+ * cleared, from the price-quality queue of offers. During market clearing, offers can only be
+ * removed from it.
+ *
+ *************************************************************************************************/
+public class QualityBandIndex implements Serializable {
+    private static final long serialVersionUID = -3260741879153627745L;
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private HouseSaleRecord [][]    offers; // Offers in each quality band, null once removed
+    private double [][]             prices;
+    private int []                  sizes; // Number of offers in each quality band, including removed ones
+    private int []                  first; // Position of the cheapest offer not yet removed in each quality band
+    private double []               minPrices; // Price of the cheapest offer in each quality band, infinite if none
+
+    //------------------------//
+    //----- Constructors -----//
+    //------------------------//
+
+    /**
+     * @param nQualityBands Number of quality bands, such that all qualities are between 0 and nQualityBands - 1
+     */
+    QualityBandIndex(int nQualityBands) {
+        offers = new HouseSaleRecord[nQualityBands][16];
+        prices = new double[nQualityBands][16];
+        sizes = new int[nQualityBands];
+        first = new int[nQualityBands];
+        minPrices = new double[nQualityBands];
+        Arrays.fill(minPrices, Double.POSITIVE_INFINITY);
+    }
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    /**
+     * Rebuild the index from all offers currently on the market
+     *
+     * @param offersPQ Price-quality priority queue of offers, whose iteration order is by increasing price and, for
+     *                 equal price and quality, by increasing id
+     */
+    void rebuild(Iterable<HousingMarketRecord> offersPQ) {
+        clear();
+        for (HousingMarketRecord element: offersPQ) {
+            int q = element.getQuality();
+            if (sizes[q] == offers[q].length) grow(q);
+            offers[q][sizes[q]] = (HouseSaleRecord)element;
+            prices[q][sizes[q]] = element.getPrice();
+            sizes[q]++;
+        }
+        for (int q = 0; q < sizes.length; q++) {
+            if (sizes[q] > 0) minPrices[q] = prices[q][0];
+        }
+    }
+
+    /**
+     * Find the offer with the highest quality, and the lowest price (and id) among those with equal quality, among all
+     * offers with a price up to the given one
+     *
+     * @param maxPrice Highest price the buyer is ready to pay
+     * @return Best offer, or null if there is no offer with a price up to maxPrice
+     */
+    HouseSaleRecord peek(double maxPrice) {
+        for (int q = minPrices.length - 1; q >= 0; q--) {
+            if (minPrices[q] <= maxPrice) return offers[q][first[q]];
+        }
+        return null;
+    }
+
+    /**
+     * Remove an offer from the index, if present
+     *
+     * @param offer Offer to remove
+     */
+    void remove(HouseSaleRecord offer) {
+        int q = offer.getQuality();
+        // Find the first position with the price of the offer, and then look for the offer among equal prices
+        int lo = first[q];
+        int hi = sizes[q];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices[q][mid] < offer.getPrice()) lo = mid + 1; else hi = mid;
+        }
+        while (lo < sizes[q] && prices[q][lo] == offer.getPrice() && offers[q][lo] != offer) lo++;
+        if (lo == sizes[q] || offers[q][lo] != offer) return;
+        offers[q][lo] = null;
+        // If the cheapest offer of the band was removed, move on to the next one not yet removed
+        if (lo == first[q]) {
+            while (first[q] < sizes[q] && offers[q][first[q]] == null) first[q]++;
+            minPrices[q] = first[q] < sizes[q] ? prices[q][first[q]] : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Remove all offers from the index, keeping its capacity
+     */
+    void clear() {
+        for (int q = 0; q < sizes.length; q++) {
+            Arrays.fill(offers[q], 0, sizes[q], null);
+            sizes[q] = 0;
+            first[q] = 0;
+            minPrices[q] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    private void grow(int q) {
+        offers[q] = Arrays.copyOf(offers[q], 2*offers[q].length);
+        prices[q] = Arrays.copyOf(prices[q], 2*prices[q].length);
+    }
+}
@@ -1,5 +1,7 @@
 package housing;
 
+import collectors.FlightRecorderEvents;
+import collectors.PerformanceRecorder;
 import collectors.RegionalHouseholdStats;
 import collectors.RegionalHousingMarketStats;
 import collectors.RegionalRentalMarketStats;
@@ -29,6 +31,15 @@ public class Region {
     public RegionalRentalMarketStats    regionalRentalMarketStats;
     public int                          targetPopulation;
     private int                         housingStock;
+    private double                      cumulativeHomeSaleHazard; // Sum over past months of -ln(1 - p), with p the monthly probability for owner-occupiers to sell their home
+
+    Bank.MortgagePreview                mortgagePreview; // Reusable space for the mortgage previews of the region's households
+    HouseholdFinances                   householdFinances; // Monthly financial update of the region's households
+    ContractCalendar                    contractCalendar; // Rental and mortgage agreements of the region's households, by due time
+    MarketView                          marketView; // Snapshot of the market expectations read by household behaviour
+    private Config                      config;
+
+    private static final double         MAX_P_SELL_HOME = 1.0 - 1e-9; // Cap to the monthly probability to sell, keeping the hazard finite
 
     // Temporary stuff
 //    static long startTime;
@@ -44,8 +55,12 @@ public class Region {
      * households
      */
     public Region(Config config, MersenneTwister rand, int targetPopulation) {
+        this.config = config;
         this.targetPopulation = targetPopulation;
         households = new ArrayList<>(targetPopulation*2);
+        mortgagePreview = new Bank.MortgagePreview();
+        householdFinances = new HouseholdFinances(config, targetPopulation*2);
+        contractCalendar = new ContractCalendar();
         houseSaleMarket = new HouseSaleMarket(config, rand, this);
         houseRentalMarket = new HouseRentalMarket(config, rand, this);
         regionalHouseholdStats = new RegionalHouseholdStats(config, this);
@@ -60,31 +75,98 @@ public class Region {
 
     public void init() {
         households.clear();
+        contractCalendar.init();
         houseSaleMarket.init();
         houseRentalMarket.init();
         regionalHousingMarketStats.init();
         regionalRentalMarketStats.init();
         regionalHouseholdStats.init();
+        marketView = new MarketView(config, this);
         housingStock = 0;
+        cumulativeHomeSaleHazard = 0.0;
     }
 
+    /**
+     * Main simulation step for the region, split into the phases before and after clearing its house sale market, so
+     * that these phases can also be run separately (as in the market clearing benchmarks)
+     */
     public void step() {
-        // Updates regional households consumption, housing decisions, and corresponding regional bids and offers
+        FlightRecorderEvents.RegionStep event = null;
+        if (FlightRecorderEvents.AVAILABLE) {
+            event = new FlightRecorderEvents.RegionStep();
+            event.begin();
+        }
+        stepUntilSaleClearing();
+        if (event != null && event.isEnabled()) {
+            event.households = households.size();
+            event.saleBids = houseSaleMarket.bids.size();
+            event.saleOffers = houseSaleMarket.getnHousesOnMarket();
+            event.rentalBids = houseRentalMarket.bids.size();
+            event.rentalOffers = houseRentalMarket.getnHousesOnMarket();
+        }
+        // Clears regional sale market and updates the HPI
+        long start = Model.performanceRecorder.startPhase();
+        houseSaleMarket.clearMarket();
+        Model.performanceRecorder.endPhase(PerformanceRecorder.Phase.SALE_CLEARING, start);
+        stepAfterSaleClearing();
+        if (event != null && event.shouldCommit()) {
+            event.region = Model.geography.indexOf(this);
+            event.commit();
+        }
+    }
+
+    /**
+     * First phase of the step, up to the point where the regional sale market is ready to be cleared: household
+     * finances, housing decisions, and corresponding regional bids and offers
+     */
+    void stepUntilSaleClearing() {
+        long start = Model.performanceRecorder.startPhase();
+        // Notifies households of their rental and mortgage agreements coming due this month...
+        for (PaymentAgreement agreement: contractCalendar.advance(Model.t)) agreement.payer.contractDue(agreement);
+        // ...updates regional households income, payments and consumption...
+        householdFinances.update(households);
+        // ...adds this month's hazard for owner-occupiers to sell their homes, waking those due to consider it...
+        updateCumulativeHomeSaleHazard();
+        // ...and then their housing decisions, and corresponding regional bids and offers
         for(Household h : households) h.step();
+        start = Model.performanceRecorder.endPhase(PerformanceRecorder.Phase.HOUSEHOLDS, start);
         // Stores regional sale market bid and offer prices and averages before bids are matched by clearing the market
         regionalHousingMarketStats.preClearingRecord();
-        // Clears regional sale market and updates the HPI
-        houseSaleMarket.clearMarket();
+        Model.performanceRecorder.endPhase(PerformanceRecorder.Phase.REGIONAL_STATS, start);
+    }
+
+    /**
+     * Second phase of the step, once the regional sale market has been cleared: sale market statistics, clearing of
+     * the regional rental market, and rental market and household statistics
+     */
+    void stepAfterSaleClearing() {
+        long start = Model.performanceRecorder.startPhase();
         // Computes and stores several regional housing market statistics after bids are matched by clearing the market (such as HPI, HPA)
         regionalHousingMarketStats.postClearingRecord();
+        marketView = new MarketView(config, this);
         // Stores regional rental market bid and offer prices and averages before bids are matched by clearing the market
         regionalRentalMarketStats.preClearingRecord();
+        start = Model.performanceRecorder.endPhase(PerformanceRecorder.Phase.REGIONAL_STATS, start);
         // Clears regional rental market
         houseRentalMarket.clearMarket();
+        start = Model.performanceRecorder.endPhase(PerformanceRecorder.Phase.RENTAL_CLEARING, start);
         // Computes and stores several regional rental market statistics after bids are matched by clearing the market (such as HPI, HPA)
         regionalRentalMarketStats.postClearingRecord();
+        marketView = new MarketView(config, this);
         // Stores regional household statistics after both regional markets have been cleared
         regionalHouseholdStats.record();
+        Model.performanceRecorder.endPhase(PerformanceRecorder.Phase.REGIONAL_STATS, start);
+    }
+
+    /**
+     * Add to the cumulative hazard for owner-occupiers to sell their homes that corresponding to this month's probability
+     * p, that is, -ln(1 - p), so that households whose thresholds are reached (see
+     * HouseholdBehaviour.scheduleHomeSaleDecision) consider selling this month, each with probability p
+     */
+    private void updateCumulativeHomeSaleHazard() {
+        if (households.isEmpty()) return;
+        double p = HouseholdBehaviour.getMonthlyProbabilityToSellHome(config, this);
+        cumulativeHomeSaleHazard -= Math.log1p(-Math.max(0.0, Math.min(p, MAX_P_SELL_HOME)));
     }
 
     //----- Getter/setter methods -----//
@@ -93,5 +175,7 @@ public class Region {
 
     public int getHousingStock() { return housingStock; }
 
+    double getCumulativeHomeSaleHazard() { return cumulativeHomeSaleHazard; }
+
     void increaseHousingStock () { housingStock++; }
 }
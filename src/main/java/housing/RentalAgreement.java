@@ -2,4 +2,6 @@ package housing;
 
 public class RentalAgreement extends PaymentAgreement {
 	private static final long serialVersionUID = 973623049277552232L;
+
+    RentalAgreement(Household tenant) { super(tenant); }
 }
@@ -0,0 +1,100 @@
+package utilities;
+
+/**************************************************************************************************
+ * Class with table-based approximations to the elementary functions evaluated by household
+ * behaviour several times per household per month. Each function reduces its argument to a small
+ * interval around one of 64 tabulated points and evaluates a short polynomial there, avoiding the
+ * extra range reduction and correction steps that make Math.exp and Math.log correctly rounded to
+ * within one ulp. Error bounds are stated for each function, and arguments outside the
+ * range where those bounds hold (infinities, NaN, subnormals, overflowing or underflowing results)
+ * are passed on to the corresponding Math function, so that special cases behave exactly as there.
+ *
+ *************************************************************************************************/
+public final class ApproximateMath {
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private static final int        TABLE_BITS = 6;
+    private static final int        TABLE_SIZE = 1 << TABLE_BITS;
+    // ln(2)/64 split into a high part with enough trailing zero bits for k*LN2_OVER_64_HI to be exact for |k| < 2^20,
+    // and a low part with the remainder
+    private static final double     LN2_HI = 6.93147180369123816490e-01;
+    private static final double     LN2_LO = 1.90821492927058770002e-10;
+    private static final double     LN2_OVER_64_HI = LN2_HI/TABLE_SIZE;
+    private static final double     LN2_OVER_64_LO = LN2_LO/TABLE_SIZE;
+    private static final double     SIXTY_FOUR_OVER_LN2 = TABLE_SIZE/Math.log(2.0);
+    private static final double     EXP_ARGUMENT_LIMIT = 700.0; // Beyond this, results overflow or become subnormal
+    private static final double []  EXP_TABLE = new double[TABLE_SIZE]; // 2^(j/64)
+    private static final double []  LOG_CENTERS = new double[TABLE_SIZE]; // 1 + (j + 1/2)/64
+    private static final double []  LOG_INV_CENTERS = new double[TABLE_SIZE]; // 1/(1 + (j + 1/2)/64)
+    private static final double []  LOG_TABLE = new double[TABLE_SIZE]; // ln(1 + (j + 1/2)/64)
+
+    static {
+        for (int j = 0; j < TABLE_SIZE; j++) {
+            EXP_TABLE[j] = Math.pow(2.0, (double)j/TABLE_SIZE);
+            LOG_CENTERS[j] = 1.0 + (j + 0.5)/TABLE_SIZE;
+            LOG_INV_CENTERS[j] = 1.0/LOG_CENTERS[j];
+            LOG_TABLE[j] = Math.log(LOG_CENTERS[j]);
+        }
+    }
+
+    //------------------------//
+    //----- Constructors -----//
+    //------------------------//
+
+    private ApproximateMath() {}
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    /**
+     * Exponential function, computed as 2^(k/64)*exp(r), with k the closest integer to 64*x/ln(2), so that
+     * |r| <= ln(2)/128, 2^(k/64) read from a table and scaled by a power of two, and exp(r) approximated by its Taylor
+     * polynomial of degree 4, whose truncation error is below |r|^5/120 < 4e-14. The relative error is below 1e-13 for
+     * |x| < 700. Outside this range, and for NaN, the result is that of Math.exp.
+     *
+     * @param x Argument
+     * @return Approximation to e^x
+     */
+    public static double exp(double x) {
+        if (!(x > -EXP_ARGUMENT_LIMIT && x < EXP_ARGUMENT_LIMIT)) return Math.exp(x);
+        long k = (long)Math.floor(x*SIXTY_FOUR_OVER_LN2 + 0.5);
+        double r = (x - k*LN2_OVER_64_HI) - k*LN2_OVER_64_LO;
+        double p = 1.0 + r*(1.0 + r*(0.5 + r*(1.0/6.0 + r*(1.0/24.0))));
+        double scale = Double.longBitsToDouble(((k >> TABLE_BITS) + 1023) << 52);
+        return scale*EXP_TABLE[(int)(k & (TABLE_SIZE - 1))]*p;
+    }
+
+    /**
+     * Natural logarithm, computed by writing x = 2^e*m, with m in [1, 2), and m = c*(1 + u), with c the closest of 64
+     * tabulated centres 1 + (j + 1/2)/64, so that ln(x) = e*ln(2) + ln(c) + ln(1 + u), where |u| < 1/128 and ln(1 + u)
+     * is approximated by its Taylor polynomial of degree 5, whose truncation error is below |u|^6/6 < 4e-14. The
+     * absolute error is below 1e-13 for all positive normal arguments, which also bounds the relative error of any
+     * exponential of a multiple of the result. For zero, negative, subnormal, infinite and NaN arguments,
+     * the result is that of Math.log.
+     *
+     * @param x Argument
+     * @return Approximation to ln(x)
+     */
+    public static double log(double x) {
+        if (!(x >= Double.MIN_NORMAL && x < Double.POSITIVE_INFINITY)) return Math.log(x);
+        long bits = Double.doubleToRawLongBits(x);
+        int e = (int)(bits >>> 52) - 1023;
+        int j = (int)((bits >>> (52 - TABLE_BITS)) & (TABLE_SIZE - 1));
+        double m = Double.longBitsToDouble((bits & 0x000FFFFFFFFFFFFFL) | 0x3FF0000000000000L);
+        double u = (m - LOG_CENTERS[j])*LOG_INV_CENTERS[j];
+        double p = u*(1.0 - u*(0.5 - u*(1.0/3.0 - u*(0.25 - u*0.2))));
+        return e*LN2_HI + (LOG_TABLE[j] + (p + e*LN2_LO));
+    }
+
+    /**
+     * Logistic sigmoid function 1/(1 + e^(-x)), with a relative error below 1e-13 as that of exp
+     *
+     * @param x Argument
+     * @return Approximation to 1/(1 + e^(-x))
+     */
+    public static double sigma(double x) { return 1.0/(1.0 + exp(-x)); }
+}
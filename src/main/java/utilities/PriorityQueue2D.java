@@ -1,9 +1,19 @@
 package utilities;
 
 import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.function.Consumer;
 
 /**************************************************************************************************
  * Class that implements a 2-dimensional priority queue: The items in the queue have two unrelated
@@ -30,6 +40,7 @@ public class PriorityQueue2D<E> implements Iterable<E>, Serializable {
 	private TreeSet<E>       	xySortedElements; // X-sorted set of elements with reverse Y-sorting for equal X
 	private TreeSet<E>          uncoveredElements; // X-sorted set of uncovered elements
 	private XYComparator<E>     comparator;
+	private XYComparatorClass   xyComparator; // Comparator of xySortedElements, also needed to rebuild it from a sorted batch
 
 	//------------------------//
 	//----- Constructors -----//
@@ -37,7 +48,8 @@ public class PriorityQueue2D<E> implements Iterable<E>, Serializable {
 
 	public PriorityQueue2D(XYComparator<E> comparator) {
 		this.comparator = comparator;
-		xySortedElements = new TreeSet<>(new XYComparatorClass());
+		xyComparator = new XYComparatorClass();
+		xySortedElements = new TreeSet<>(xyComparator);
 		uncoveredElements = new TreeSet<>(new XYComparatorClass());
 	}
 
@@ -93,6 +105,72 @@ public class PriorityQueue2D<E> implements Iterable<E>, Serializable {
 		}
 	}
 
+	/**
+	 * Read-only view of an XY-sorted list of distinct elements as a SortedSet, so that a TreeSet can be built from it
+	 * in linear time. Range views are views of the corresponding sublists, found by binary search
+	 */
+	private static class SortedListView<T> extends AbstractSet<T> implements SortedSet<T> {
+		// Fields
+		List<T> list;
+		Comparator<? super T> comparator;
+		// Constructors
+		SortedListView(List<T> list, Comparator<? super T> comparator) {
+			this.list = list;
+			this.comparator = comparator;
+		}
+		// Methods
+		@Override
+		public Iterator<T> iterator() { return Collections.unmodifiableList(list).iterator(); }
+		@Override
+		public int size() { return list.size(); }
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean contains(Object o) {
+			int i = lowerBound((T)o);
+			return i < list.size() && comparator.compare(list.get(i), (T)o) == 0;
+		}
+		@Override
+		public Comparator<? super T> comparator() { return comparator; }
+		@Override
+		public T first() {
+			if (list.isEmpty()) throw new NoSuchElementException();
+			return list.get(0);
+		}
+		@Override
+		public T last() {
+			if (list.isEmpty()) throw new NoSuchElementException();
+			return list.get(list.size() - 1);
+		}
+		@Override
+		public SortedSet<T> subSet(T fromElement, T toElement) {
+			if (comparator.compare(fromElement, toElement) > 0) {
+				throw new IllegalArgumentException("fromElement is greater than toElement");
+			}
+			return new SortedListView<>(list.subList(lowerBound(fromElement), lowerBound(toElement)), comparator);
+		}
+		@Override
+		public SortedSet<T> headSet(T toElement) {
+			return new SortedListView<>(list.subList(0, lowerBound(toElement)), comparator);
+		}
+		@Override
+		public SortedSet<T> tailSet(T fromElement) {
+			return new SortedListView<>(list.subList(lowerBound(fromElement), list.size()), comparator);
+		}
+		/**
+		 * @return Position of the first element of the list not less than the given one, or the size of the list if
+		 * there is none
+		 */
+		private int lowerBound(T element) {
+			int lo = 0;
+			int hi = list.size();
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (comparator.compare(list.get(mid), element) < 0) lo = mid + 1; else hi = mid;
+			}
+			return lo;
+		}
+	}
+
 	//-------------------//
 	//----- Methods -----//
 	//-------------------//
@@ -108,6 +186,90 @@ public class PriorityQueue2D<E> implements Iterable<E>, Serializable {
 		xySortedElements.add(element);
 	}
 
+	/**
+	 * Adds a batch of new elements to the XY-sorted TreeSet, xySortedElements. If the batch is small compared to the
+	 * number of elements already in the queue, its elements are simply added one by one. Otherwise, the batch is
+	 * sorted and merged with the elements already in the queue, and the TreeSet is rebuilt from the merged list, which
+	 * takes O(n + k log k) time, instead of O(k log(n + k)), for a batch of k elements and a queue of n elements
+	 *
+	 * @param elements Objects to be added
+	 */
+	public void addAll(Collection<? extends E> elements) {
+		if (elements.size() < xySortedElements.size()/16) {
+			for (E element: elements) add(element);
+			return;
+		}
+		ArrayList<E> batch = new ArrayList<>(elements);
+		batch.sort(xyComparator);
+		ArrayList<E> merged = new ArrayList<>(xySortedElements.size() + batch.size());
+		Iterator<E> iterator = xySortedElements.iterator();
+		E next = iterator.hasNext() ? iterator.next() : null;
+		for (E element: batch) {
+			// Take first all elements already in the queue that come before the new one...
+			while (next != null && xyComparator.compare(next, element) < 0) {
+				merged.add(next);
+				next = iterator.hasNext() ? iterator.next() : null;
+			}
+			// ...and then the new one, unless it is already in the queue or in the batch (as TreeSet.add would do)
+			if (next != null && xyComparator.compare(next, element) == 0) continue;
+			if (!merged.isEmpty() && xyComparator.compare(merged.get(merged.size() - 1), element) == 0) continue;
+			merged.add(element);
+		}
+		while (next != null) {
+			merged.add(next);
+			next = iterator.hasNext() ? iterator.next() : null;
+		}
+		xySortedElements = new TreeSet<>(new SortedListView<>(merged, xyComparator));
+	}
+
+	/**
+	 * Applies an update changing the X and Y values of a batch of elements already in the queue, such as a common
+	 * rescaling of their X values, which is expected to keep the relative order of the batch. If the batch is small
+	 * compared to the number of elements in the queue, each element is simply removed, updated and added again.
+	 * Otherwise, a single pass through xySortedElements separates the batch, in XY order, from the rest of elements,
+	 * the batch is updated, and both XY-sorted lists are merged and the TreeSet rebuilt from the merged list, which
+	 * takes O(n + k) time, instead of O(k log n), for a batch of k elements and a queue of n elements. Only if the
+	 * update did not keep the relative order of the batch (e.g., if rounding made two rescaled values equal), is the
+	 * batch sorted again before merging. Since the keys of updated elements change, uncoveredElements, if not empty, is
+	 * then filled again as by sortPriorities.
+	 *
+	 * @param elements Objects in the queue to be updated, in any order and without repetitions
+	 * @param update Update to apply to each of them
+	 */
+	public void updateAll(Collection<? extends E> elements, Consumer<? super E> update) {
+		if (elements.isEmpty()) return;
+		if (elements.size() < xySortedElements.size()/16) {
+			for (E element: elements) {
+				remove(element);
+				update.accept(element);
+				add(element);
+			}
+			return;
+		}
+		Set<E> members = Collections.newSetFromMap(new IdentityHashMap<>(2*elements.size()));
+		members.addAll(elements);
+		ArrayList<E> batch = new ArrayList<>(elements.size());
+		ArrayList<E> rest = new ArrayList<>(xySortedElements.size());
+		for (E element: xySortedElements) {
+			if (members.contains(element)) batch.add(element); else rest.add(element);
+		}
+		boolean sorted = true;
+		for (int i = 0; i < batch.size(); i++) {
+			update.accept(batch.get(i));
+			if (i > 0 && xyComparator.compare(batch.get(i - 1), batch.get(i)) > 0) sorted = false;
+		}
+		if (!sorted) batch.sort(xyComparator);
+		ArrayList<E> merged = new ArrayList<>(rest.size() + batch.size());
+		int j = 0;
+		for (E element: batch) {
+			while (j < rest.size() && xyComparator.compare(rest.get(j), element) < 0) merged.add(rest.get(j++));
+			merged.add(element);
+		}
+		while (j < rest.size()) merged.add(rest.get(j++));
+		xySortedElements = new TreeSet<>(new SortedListView<>(merged, xyComparator));
+		if (!uncoveredElements.isEmpty()) sortPriorities();
+	}
+
 	/**
 	 * Fill uncoveredElements TreeSet from the xySortedElements TreeSet
 	 */
@@ -150,10 +312,12 @@ public class PriorityQueue2D<E> implements Iterable<E>, Serializable {
 	 * Removes element both from the xySortedElements and the uncoveredElements TreeSets
 	 *
 	 * @param element Element to remove
+	 * @return True if the element was in the queue
 	 */
-	public void remove(E element) {
-		xySortedElements.remove(element);
+	public boolean remove(E element) {
+		if (!xySortedElements.remove(element)) return false;
 		removeFromUncovered(element);
+		return true;
 	}
 
 	/**
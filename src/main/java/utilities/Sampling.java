@@ -0,0 +1,191 @@
+package utilities;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.util.FastMath;
+
+/**************************************************************************************************
+ * Class with allocation-free samplers for discrete distributions used in the hot paths of the
+ * model, drawing directly from the simulation's random number generator instead of creating a new
+ * commons-math distribution object for every sample, so that results are reproducible from the
+ * simulation's seed.
+ *
+ *************************************************************************************************/
+public final class Sampling {
+
+    //------------------------//
+    //----- Constructors -----//
+    //------------------------//
+
+    private Sampling() {}
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    /**
+     * Sample the number of failures before the first success of a sequence of Bernoulli trials with success probability
+     * p, by inverse transform of a single uniform draw. The result is the same as that of sampling a commons-math
+     * GeometricDistribution constructed with the same random number generator, which also inverts a single uniform draw
+     * through its cumulative probability, 1 - (1 - p)^(k + 1), but finds the inverse by bisection.
+     *
+     * @param rand Random number generator to draw from
+     * @param p Probability of success of each trial, in (0, 1]
+     * @return Number of failures before the first success
+     */
+    public static int nextGeometric(RandomGenerator rand, double p) {
+        double u = rand.nextDouble();
+        if (p == 1.0 || u == 0.0) return 0;
+        // Closed-form inverse of the cumulative probability, with possible rounding errors...
+        double k = FastMath.ceil(FastMath.log1p(-u)/FastMath.log1p(-p) - 1.0);
+        int sample = k < 0.0 ? 0 : (k > Integer.MAX_VALUE - 1 ? Integer.MAX_VALUE - 1 : (int)k);
+        // ...corrected, if needed, to the smallest number of failures whose cumulative probability is at least u
+        while (sample > 0 && geometricCumulativeProbability(sample - 1, p) >= u) sample--;
+        while (geometricCumulativeProbability(sample, p) < u) sample++;
+        return sample;
+    }
+
+    private static double geometricCumulativeProbability(int k, double p) {
+        return 1.0 - FastMath.pow(1.0 - p, k + 1);
+    }
+
+    /**
+     * Sample the number of successes in n independent Bernoulli trials with success probability p. For a small mean,
+     * n*min(p, 1 - p) <= 30, the sample is found by inversion, sequentially searching the cumulative probability, which
+     * takes a time proportional to the mean. For a larger mean, the BTPE acceptance-rejection algorithm
+     * (Kachitvichyanukul and Schmeiser, 1988) is used instead, which takes a bounded expected time independent of n.
+     * Either way, the cost no longer grows with the number of trials, as it would by drawing one uniform per trial.
+     *
+     * @param rand Random number generator to draw from
+     * @param n Number of trials, non-negative
+     * @param p Probability of success of each trial, in [0, 1]
+     * @return Number of successes
+     */
+    public static int nextBinomial(RandomGenerator rand, int n, double p) {
+        if (n <= 0 || p <= 0.0) return 0;
+        if (p >= 1.0) return n;
+        // Sample with the smallest of p and 1 - p, and flip the result if needed
+        double r = Math.min(p, 1.0 - p);
+        int sample = (n*r <= 30.0) ? binomialInversion(rand, n, r) : binomialBTPE(rand, n, r);
+        return (p > 0.5) ? n - sample : sample;
+    }
+
+    /**
+     * Binomial sampling by inversion, for p <= 0.5 and a small mean
+     */
+    private static int binomialInversion(RandomGenerator rand, int n, double p) {
+        double q = 1.0 - p;
+        double qn = FastMath.exp(n*FastMath.log1p(-p));
+        double np = n*p;
+        double bound = Math.min(n, np + 10.0*FastMath.sqrt(np*q + 1.0));
+        int x = 0;
+        double px = qn;
+        double u = rand.nextDouble();
+        while (u > px) {
+            x++;
+            // Restart in the extremely unlikely case of rounding errors taking the search beyond any sensible value
+            if (x > bound) {
+                x = 0;
+                px = qn;
+                u = rand.nextDouble();
+            } else {
+                u -= px;
+                px = ((n - x + 1)*p*px)/(x*q);
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Binomial sampling by the BTPE algorithm, for p <= 0.5 and a large mean. The distribution is bounded by a
+     * triangular central region, two parallelograms and two exponential tails, with samples from this bound accepted
+     * either directly, by explicit evaluation of the ratio of probabilities for samples close to the mode, or by
+     * squeezing followed by a Stirling approximation of the log-probability otherwise
+     */
+    private static int binomialBTPE(RandomGenerator rand, int n, double p) {
+        // Set-up, depending only on n and p
+        double q = 1.0 - p;
+        double nrq = n*p*q;
+        double fm = n*p + p;
+        int m = (int)FastMath.floor(fm); // Mode of the distribution
+        double p1 = FastMath.floor(2.195*FastMath.sqrt(nrq) - 4.6*q) + 0.5;
+        double xm = m + 0.5;
+        double xl = xm - p1;
+        double xr = xm + p1;
+        double c = 0.134 + 20.5/(15.3 + m);
+        double a = (fm - xl)/(fm - xl*p);
+        double laml = a*(1.0 + a/2.0);
+        a = (xr - fm)/(xr*q);
+        double lamr = a*(1.0 + a/2.0);
+        double p2 = p1*(1.0 + 2.0*c);
+        double p3 = p2 + c/laml;
+        double p4 = p3 + c/lamr;
+        while (true) {
+            double u = rand.nextDouble()*p4;
+            double v = rand.nextDouble();
+            int y;
+            if (u <= p1) {
+                // Triangular region, accepted directly
+                return (int)FastMath.floor(xm - p1*v + u);
+            } else if (u <= p2) {
+                // Parallelograms
+                double x = xl + (u - p1)/c;
+                v = v*c + 1.0 - FastMath.abs(m - x + 0.5)/p1;
+                if (v > 1.0) continue;
+                y = (int)FastMath.floor(x);
+            } else if (u <= p3) {
+                // Left exponential tail
+                if (v == 0.0) continue;
+                double x = FastMath.floor(xl + FastMath.log(v)/laml);
+                if (x < 0.0) continue;
+                y = (int)x;
+                v = v*(u - p2)*laml;
+            } else {
+                // Right exponential tail
+                if (v == 0.0) continue;
+                double x = FastMath.floor(xr - FastMath.log(v)/lamr);
+                if (x > n) continue;
+                y = (int)x;
+                v = v*(u - p3)*lamr;
+            }
+            int k = Math.abs(y - m);
+            if (k <= 20 || k >= nrq/2.0 - 1.0) {
+                // Explicit evaluation of the ratio of the probabilities of y and of the mode
+                double s = p/q;
+                double aa = s*(n + 1);
+                double f = 1.0;
+                if (m < y) {
+                    for (int i = m + 1; i <= y; i++) f *= (aa/i - s);
+                } else if (m > y) {
+                    for (int i = y + 1; i <= m; i++) f /= (aa/i - s);
+                }
+                if (v <= f) return y;
+            } else {
+                // Squeezing, using upper and lower bounds on the log-probability ratio...
+                double rho = (k/nrq)*((k*(k/3.0 + 0.625) + 0.16666666666666666)/nrq + 0.5);
+                double t = -k*(double)k/(2.0*nrq);
+                double logV = FastMath.log(v);
+                if (logV < t - rho) return y;
+                if (logV > t + rho) continue;
+                // ...and, if needed, the final acceptance-rejection test with Stirling's approximation
+                double x1 = y + 1.0;
+                double f1 = m + 1.0;
+                double z = n + 1.0 - m;
+                double w = n - y + 1.0;
+                if (logV <= xm*FastMath.log(f1/x1) + (n - m + 0.5)*FastMath.log(z/w)
+                        + (y - m)*FastMath.log(w*p/(x1*q))
+                        + stirlingCorrection(f1) + stirlingCorrection(z) + stirlingCorrection(x1)
+                        + stirlingCorrection(w)) {
+                    return y;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Correction term of Stirling's approximation to the logarithm of the factorial, as used by BTPE
+     */
+    private static double stirlingCorrection(double x) {
+        double x2 = x*x;
+        return (13680.0 - (462.0 - (132.0 - (99.0 - 140.0/x2)/x2)/x2)/x2)/x/166320.0;
+    }
+}
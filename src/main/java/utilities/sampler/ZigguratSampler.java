@@ -0,0 +1,172 @@
+package utilities.sampler;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**************************************************************************************************
+ * Class with ziggurat samplers for the standard normal and the standard exponential distributions,
+ * following the ZIGNOR variant of Marsaglia and Tsang's method (Doornik, 2005). Each density is
+ * covered by horizontal layers of equal area: a bottom layer joined to the tail, and rectangles
+ * stacked above it. A single 64-bit draw picks a layer (its lowest bits) and a uniform position
+ * across it (its highest 53 bits), and the sample is accepted directly whenever it falls inside the
+ * part of the layer lying entirely under the density, which happens about 98.8% of the time for
+ * the normal and 98.9% for the exponential. Only the remaining draws need an exponential to be
+ * evaluated, and only draws in the tail further samples. This replaces the two uniforms, logarithm
+ * and square root of each pair of samples drawn by the polar method behind
+ * MersenneTwister.nextGaussian, and the logarithm of inversion sampling for the exponential.
+ *
+ * As the samplers at Sampling, these draw directly from the simulation's random number generator,
+ * so that results are reproducible from the simulation's seed, although normal samples are not the
+ * same as those of nextGaussian for the same generator and seed.
+ *
+ *************************************************************************************************/
+public final class ZigguratSampler {
+
+    //------------------//
+    //----- Fields -----//
+    //------------------//
+
+    private static final double     UNIFORM_53 = 0x1.0p-53; // Spacing of uniform doubles built from 53 random bits
+    // Normal distribution
+    private static final int        NORMAL_LAYERS = 128;
+    private static final double     NORMAL_R = 3.442619855899; // Start of the tail
+    private static final double     NORMAL_V = 9.91256303526217e-3; // Area of each layer
+    private static final double []  NORMAL_X = new double[NORMAL_LAYERS + 1]; // Right edge of each layer
+    private static final double []  NORMAL_RATIO = new double[NORMAL_LAYERS]; // Fraction of each layer under the density
+    // Exponential distribution
+    private static final int        EXPONENTIAL_LAYERS = 256;
+    private static final double     EXPONENTIAL_R = 7.697117470131487; // Start of the tail
+    private static final double     EXPONENTIAL_V = 3.949659822581572e-3; // Area of each layer
+    private static final double []  EXPONENTIAL_X = new double[EXPONENTIAL_LAYERS + 1]; // Right edge of each layer
+    private static final double []  EXPONENTIAL_RATIO = new double[EXPONENTIAL_LAYERS]; // Fraction of each layer under the density
+
+    static {
+        // Layers of the normal distribution, with the bottom one given the same area as the rest once the tail is
+        // included
+        double f = Math.exp(-0.5*NORMAL_R*NORMAL_R);
+        NORMAL_X[0] = NORMAL_V/f;
+        NORMAL_X[1] = NORMAL_R;
+        NORMAL_X[NORMAL_LAYERS] = 0.0;
+        for (int i = 2; i < NORMAL_LAYERS; i++) {
+            NORMAL_X[i] = Math.sqrt(-2.0*Math.log(NORMAL_V/NORMAL_X[i - 1] + f));
+            f = Math.exp(-0.5*NORMAL_X[i]*NORMAL_X[i]);
+        }
+        for (int i = 0; i < NORMAL_LAYERS; i++) NORMAL_RATIO[i] = NORMAL_X[i + 1]/NORMAL_X[i];
+        // Layers of the exponential distribution, likewise
+        f = Math.exp(-EXPONENTIAL_R);
+        EXPONENTIAL_X[0] = EXPONENTIAL_V/f;
+        EXPONENTIAL_X[1] = EXPONENTIAL_R;
+        EXPONENTIAL_X[EXPONENTIAL_LAYERS] = 0.0;
+        for (int i = 2; i < EXPONENTIAL_LAYERS; i++) {
+            EXPONENTIAL_X[i] = -Math.log(EXPONENTIAL_V/EXPONENTIAL_X[i - 1] + f);
+            f = Math.exp(-EXPONENTIAL_X[i]);
+        }
+        for (int i = 0; i < EXPONENTIAL_LAYERS; i++) {
+            EXPONENTIAL_RATIO[i] = EXPONENTIAL_X[i + 1]/EXPONENTIAL_X[i];
+        }
+    }
+
+    //------------------------//
+    //----- Constructors -----//
+    //------------------------//
+
+    private ZigguratSampler() {}
+
+    //-------------------//
+    //----- Methods -----//
+    //-------------------//
+
+    /**
+     * Sample from the standard normal distribution
+     *
+     * @param rand Random number generator to draw from
+     * @return Normally distributed sample with zero mean and unit standard deviation
+     */
+    public static double nextGaussian(RandomGenerator rand) {
+        while (true) {
+            long bits = rand.nextLong();
+            int i = (int)(bits & (NORMAL_LAYERS - 1));
+            double u = 2.0*((bits >>> 11)*UNIFORM_53) - 1.0;
+            // Inside the part of the layer lying entirely under the density, accepted directly
+            if (Math.abs(u) < NORMAL_RATIO[i]) return u*NORMAL_X[i];
+            // Bottom layer, outside its rectangle, sample from the tail
+            if (i == 0) return normalTail(rand, u < 0.0);
+            // Otherwise, accept if under the density within the wedge between this layer and the one above
+            double x = u*NORMAL_X[i];
+            double f0 = Math.exp(-0.5*(NORMAL_X[i]*NORMAL_X[i] - x*x));
+            double f1 = Math.exp(-0.5*(NORMAL_X[i + 1]*NORMAL_X[i + 1] - x*x));
+            if (f1 + rand.nextDouble()*(f0 - f1) < 1.0) return x;
+        }
+    }
+
+    /**
+     * Fill an array with independent samples from the standard normal distribution
+     *
+     * @param rand Random number generator to draw from
+     * @param out Array to fill
+     */
+    public static void fillGaussian(RandomGenerator rand, double [] out) { fillGaussian(rand, out, 0, out.length); }
+
+    /**
+     * Fill positions from (inclusive) to to (exclusive) of an array with independent samples from the standard normal
+     * distribution
+     *
+     * @param rand Random number generator to draw from
+     * @param out Array to fill
+     * @param from First position to fill
+     * @param to Position after the last one to fill
+     */
+    public static void fillGaussian(RandomGenerator rand, double [] out, int from, int to) {
+        for (int j = from; j < to; j++) out[j] = nextGaussian(rand);
+    }
+
+    /**
+     * Sample from the standard exponential distribution
+     *
+     * @param rand Random number generator to draw from
+     * @return Exponentially distributed sample with unit mean
+     */
+    public static double nextExponential(RandomGenerator rand) {
+        double shift = 0.0;
+        while (true) {
+            long bits = rand.nextLong();
+            int i = (int)(bits & (EXPONENTIAL_LAYERS - 1));
+            double u = (bits >>> 11)*UNIFORM_53;
+            // Inside the part of the layer lying entirely under the density, accepted directly
+            if (u < EXPONENTIAL_RATIO[i]) return shift + u*EXPONENTIAL_X[i];
+            // Bottom layer, outside its rectangle, the tail is again exponential, shifted to start at EXPONENTIAL_R
+            if (i == 0) {
+                shift += EXPONENTIAL_R;
+                continue;
+            }
+            // Otherwise, accept if under the density within the wedge between this layer and the one above
+            double x = u*EXPONENTIAL_X[i];
+            double f0 = Math.exp(-(EXPONENTIAL_X[i] - x));
+            double f1 = Math.exp(-(EXPONENTIAL_X[i + 1] - x));
+            if (f1 + rand.nextDouble()*(f0 - f1) < 1.0) return shift + x;
+        }
+    }
+
+    /**
+     * Fill an array with independent samples from the standard exponential distribution
+     *
+     * @param rand Random number generator to draw from
+     * @param out Array to fill
+     */
+    public static void fillExponential(RandomGenerator rand, double [] out) {
+        for (int j = 0; j < out.length; j++) out[j] = nextExponential(rand);
+    }
+
+    /**
+     * Sample from the tail of the standard normal distribution beyond NORMAL_R (Marsaglia, 1964), with the logarithms
+     * of uniforms replaced by exponential samples
+     */
+    private static double normalTail(RandomGenerator rand, boolean negative) {
+        double x;
+        double y;
+        do {
+            x = nextExponential(rand)/NORMAL_R;
+            y = nextExponential(rand);
+        } while (2.0*y < x*x);
+        return negative ? -NORMAL_R - x : NORMAL_R + x;
+    }
+}